@@ -0,0 +1,337 @@
+package algorithms;
+
+import model.LazyNodeMap;
+import model.Maze;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Class holds the A* search. Nodes
+ * are taken in order of distance
+ * so far plus the straight row and
+ * column distance to the finish.
+ * Corridors only run along rows and
+ * columns, so that estimate never
+ * overshoots and the first time the
+ * finish is taken its path is the
+ * shortest. The search runs on the
+ * full Node map or on a LazyNodeMap
+ * that only makes the Nodes it reaches.
+ */
+public class AStar implements Engine {
+
+    /** true if the Node map is made while searching */
+    private final boolean lazy;
+
+    /** holds the open Nodes as (estimate << 32 | id), smallest first */
+    private long[] heap = new long[ 1024 ];
+
+    /** holds the number of entries in the heap */
+    private int heapSize;
+
+    /** holds the distance so far of each Node */
+    private int[] distance = new int[ 0 ];
+
+    /** holds the id of the Node each Node was reached from */
+    private int[] from = new int[ 0 ];
+
+    /** true once a Node's distance is final */
+    private boolean[] closed = new boolean[ 0 ];
+
+    /** holds each Node seen by the search by id */
+    private Maze.Node[] nodes = new Maze.Node[ 0 ];
+
+    /**
+     * Constructor for the AStar
+     * @param lazy true to make Nodes while searching
+     *             instead of building the Node map
+     */
+    public AStar ( boolean lazy ) {
+        this.lazy = lazy;
+    }
+
+    /**
+     * Called by MazeSolver. Generates
+     * the Maze, runs the search, and
+     * traces the result.
+     * @param inputFileName input maze
+     * @param outputFileName output traced maze
+     * @param showPlot boolean to show traced maze
+     * @param lazy true to make Nodes while searching
+     */
+    public static void solve ( String inputFileName, String outputFileName, boolean showPlot, boolean lazy ) {
+
+        EngineRunner.solve( new AStar( lazy ), inputFileName, outputFileName, showPlot );
+
+    }
+
+    /**
+     * Returns the name of the algorithm
+     * @return name
+     */
+    @Override
+    public String getName () {
+        return this.lazy ? "lazy" : "astar";
+    }
+
+    /**
+     * Returns false when the Nodes
+     * are made while searching
+     * @return boolean
+     */
+    @Override
+    public boolean needsNodeMap () {
+        return !this.lazy;
+    }
+
+    /**
+     * Runs the A* search
+     * @param maze Maze, with its Node map unless lazy
+     * @param budget time the search may take
+     * @return how the search ended, with the path
+     */
+    @Override
+    public SolveResult search ( Maze maze, SolveBudget budget ) {
+
+        LazyNodeMap lazyMap = null;
+
+        Maze.Node start, finish;
+
+        if ( this.lazy ) {
+
+            lazyMap = new LazyNodeMap( maze );
+
+            start = lazyMap.getStart();
+            finish = lazyMap.getFinish();
+
+        } else {
+
+            start = maze.getStart();
+            finish = maze.getFinish();
+
+        }
+
+        if ( start == null || finish == null ) {
+            return SolveResult.noPath( 0 );
+        }
+
+        grow( Math.max( 16, this.lazy ? 0 : maze.getNodeCount() ) );
+        grow( Math.max( start.getId(), finish.getId() ) + 1 );
+
+        nodes[ start.getId() ] = start;
+        distance[ start.getId() ] = 0;
+        from[ start.getId() ] = start.getId();
+
+        push( estimate( start, finish ), start.getId() );
+
+        boolean found = false;
+
+        // the settled Node closest to the finish, for a partial path
+        int best = start.getId();
+        int bestLeft = estimate( start, finish );
+
+        long settledCount = 0;
+
+        while ( heapSize > 0 ) {
+
+            int u = pop();
+
+            if ( closed[ u ] ) {
+                continue;
+            }
+
+            closed[ u ] = true;
+
+            if ( u == finish.getId() ) {
+                found = true;
+                break;
+            }
+
+            Maze.Node node = nodes[ u ];
+
+            if ( estimate( node, finish ) < bestLeft ) {
+                best = u;
+                bestLeft = estimate( node, finish );
+            }
+
+            if ( budget.exceeded( settledCount++ ) ) {
+                return made( SolveResult.stopped( budget, route( best, start ), settledCount ), lazyMap );
+            }
+
+            if ( lazyMap != null ) {
+                lazyMap.expand( node );
+            }
+
+            for ( int i = 0; i < 4; i++ ) {
+
+                Maze.Node neighbor = node.getNeighbor( i );
+
+                if ( neighbor == null ) {
+                    continue;
+                }
+
+                int v = neighbor.getId();
+
+                if ( v >= closed.length ) {
+                    grow( Math.max( v + 1, closed.length * 2 ) );
+                }
+
+                if ( closed[ v ] ) {
+                    continue;
+                }
+
+                int d = distance[ u ]
+                        + Math.abs( neighbor.getXPos() - node.getXPos() )
+                        + Math.abs( neighbor.getYPos() - node.getYPos() );
+
+                if ( d < distance[ v ] ) {
+
+                    nodes[ v ] = neighbor;
+                    distance[ v ] = d;
+                    from[ v ] = u;
+
+                    // the old entry stays in the heap and is skipped once v is closed
+                    push( d + estimate( neighbor, finish ), v );
+
+                }
+
+            }
+
+        }
+
+        if ( !found ) {
+            return made( SolveResult.noPath( settledCount ), lazyMap );
+        }
+
+        return made( SolveResult.solved( route( finish.getId(), start ), settledCount + 1 ), lazyMap );
+
+    }
+
+    /**
+     * Adds the Nodes made by the lazy
+     * map to a result
+     * @param result how the search ended
+     * @param lazyMap lazy map, null if the full Node map was searched
+     * @return result
+     */
+    private static SolveResult made ( SolveResult result, LazyNodeMap lazyMap ) {
+        return lazyMap == null ? result : result.withMade( lazyMap.getNodeCount() );
+    }
+
+    /**
+     * Returns the path from the
+     * start to a settled Node
+     * @param end settled Node id
+     * @param start start Node
+     * @return points of the path
+     */
+    private ArrayList<int[]> route ( int end, Maze.Node start ) {
+
+        ArrayList<int[]> path = new ArrayList<>();
+
+        for ( int v = end; v != start.getId(); v = from[ v ] ) {
+            path.add( new int[] { nodes[ v ].getXPos(), nodes[ v ].getYPos() } );
+        }
+
+        path.add( new int[] { start.getXPos(), start.getYPos() } );
+
+        Collections.reverse( path );
+
+        return path;
+
+    }
+
+    /**
+     * Returns the row and column
+     * distance between two Nodes
+     * @param a Node
+     * @param b Node
+     * @return distance
+     */
+    private static int estimate ( Maze.Node a, Maze.Node b ) {
+        return Math.abs( a.getXPos() - b.getXPos() ) + Math.abs( a.getYPos() - b.getYPos() );
+    }
+
+    /**
+     * Grows the per Node arrays
+     * @param size new size
+     */
+    private void grow ( int size ) {
+
+        if ( size <= closed.length ) {
+            return;
+        }
+
+        int old = closed.length;
+
+        distance = Arrays.copyOf( distance, size );
+        from = Arrays.copyOf( from, size );
+        closed = Arrays.copyOf( closed, size );
+        nodes = Arrays.copyOf( nodes, size );
+
+        Arrays.fill( distance, old, size, Integer.MAX_VALUE );
+
+    }
+
+    /**
+     * Adds an entry to the heap
+     * @param estimate distance so far plus estimate
+     * @param id Node id
+     */
+    private void push ( int estimate, int id ) {
+
+        if ( heapSize == heap.length ) {
+            heap = Arrays.copyOf( heap, heap.length * 2 );
+        }
+
+        long entry = ( (long) estimate << 32 ) | id;
+
+        int i = heapSize++;
+
+        while ( i > 0 && heap[ ( i - 1 ) / 2 ] > entry ) {
+            heap[ i ] = heap[ ( i - 1 ) / 2 ];
+            i = ( i - 1 ) / 2;
+        }
+
+        heap[ i ] = entry;
+
+    }
+
+    /**
+     * Removes the smallest entry
+     * from the heap
+     * @return its Node id
+     */
+    private int pop () {
+
+        long top = heap[ 0 ];
+        long last = heap[ --heapSize ];
+
+        int i = 0;
+
+        while ( 2 * i + 1 < heapSize ) {
+
+            int child = 2 * i + 1;
+
+            if ( child + 1 < heapSize && heap[ child + 1 ] < heap[ child ] ) {
+                ++child;
+            }
+
+            if ( heap[ child ] >= last ) {
+                break;
+            }
+
+            heap[ i ] = heap[ child ];
+            i = child;
+
+        }
+
+        heap[ i ] = last;
+
+        return (int) top;
+
+    }
+
+}
@@ -0,0 +1,94 @@
+package algorithms;
+
+import model.Maze;
+
+/**
+ * Class picks the search algorithm
+ * for a Maze from a MazeProfile and
+ * the free heap, prints why, and runs
+ * it. Only algorithms that find the
+ * shortest path are picked; the
+ * walker only finds it in a maze
+ * with no loops, which it checks.
+ */
+public class Auto {
+
+    /** holds the estimated search bytes per Node of dial (four ints and a boolean) */
+    private static final int DIAL_BYTES = 17;
+
+    /** holds the search bits per pixel of flood (two generation bitplanes and the moved bits) */
+    private static final int FLOOD_BITS = 3;
+
+    /**
+     * Called by MazeSolver. Loads the
+     * Maze, picks an algorithm, and
+     * runs it.
+     * @param inputFileName input maze
+     * @param outputFileName output traced maze
+     * @param showPlot boolean to show traced maze
+     */
+    public static void solve ( String inputFileName, String outputFileName, boolean showPlot ) {
+
+        Maze maze = EngineRunner.load( inputFileName );
+
+        if ( maze == null ) {
+            return;
+        }
+
+        EngineRunner.solve( choose( maze ), maze, inputFileName, outputFileName, showPlot );
+
+    }
+
+    /**
+     * Profiles the Maze and returns
+     * the algorithm expected to be
+     * fastest that fits in the heap
+     * @param maze Maze, the Node map is not needed
+     * @return algorithm
+     */
+    public static Engine choose ( Maze maze ) {
+
+        double startTime = System.currentTimeMillis();
+
+        MazeProfile profile = new MazeProfile( maze );
+
+        Runtime runtime = Runtime.getRuntime();
+
+        long free = runtime.maxMemory() - ( runtime.totalMemory() - runtime.freeMemory() );
+
+        long dialBytes = profile.estimateBytes( DIAL_BYTES );
+
+        // flood keeps three bits per pixel and builds no Node map
+        long floodBytes = (long) maze.getWidth() * maze.getHeight() * FLOOD_BITS / 8;
+
+        System.out.println("Profile: " + profile);
+
+        System.out.printf("Profile: ~%d MB for dial, ~%d MB for flood, %d MB free.\n",
+                dialBytes >> 20, floodBytes >> 20, free >> 20);
+
+        Engine engine;
+        String reason;
+
+        // the dead end ratio only hints at loops, so the walker is only picked after a full check
+        if ( dialBytes > free && PerfectMaze.check( maze ) ) {
+
+            engine = new Walker( true );
+            reason = "the node map may not fit in the heap and the maze has no loops, so a wall walk needs no node map";
+
+        } else {
+
+            // building the Node map alone takes longer than a whole flood, so no Node map search wins on any core count
+            engine = new FloodFill();
+            reason = "building the node map alone takes longer than flooding the packed pixels, and flood only keeps three bits per pixel";
+
+        }
+
+        System.out.printf("Chose %s: %s.\n", engine.getName(), reason);
+
+        System.out.printf("Profiled maze: Finished in %.5f seconds.\n", (System.currentTimeMillis() - startTime) / 1000.0);
+
+        return engine;
+
+    }
+
+}
@@ -0,0 +1,346 @@
+package algorithms;
+
+import model.Maze;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Class holds a parallel
+ * delta-stepping shortest path
+ * search. Nodes are kept in buckets
+ * of width delta by distance. The
+ * lowest bucket is settled by
+ * relaxing its light edges (at most
+ * delta long) until it stays empty,
+ * then the heavy edges of every
+ * Node it held. Each round of
+ * relaxations runs on the common
+ * fork join pool, so idle workers
+ * steal the Nodes of busy ones.
+ */
+public class DeltaStepping implements Engine {
+
+    /** holds the bucket width, 0 picks the average edge length */
+    private static int delta = 0;
+
+    /** holds the smallest round that is relaxed in parallel */
+    private static final int PARALLEL_ROUND = 256;
+
+    /** holds the state of a Node before it is reached */
+    private static final long UNREACHED = Long.MAX_VALUE;
+
+    /**
+     * holds the distance (high 32 bits) and the id of the
+     * Node it was reached from (low 32 bits) of every Node,
+     * so both are replaced by one compare and set
+     */
+    private AtomicLongArray state;
+
+    /** holds the buckets of Nodes by distance / width */
+    private final ConcurrentSkipListMap<Integer, ConcurrentLinkedQueue<Maze.Node>> buckets = new ConcurrentSkipListMap<>();
+
+    /** holds the Node map by id */
+    private ArrayList<Maze.Node> nodes;
+
+    /** holds the bucket width of this search */
+    private int width;
+
+    /**
+     * Sets the bucket width
+     * @param bucketWidth width in pixels, 0 for automatic
+     */
+    public static void setDelta ( int bucketWidth ) {
+
+        if ( bucketWidth < 0 ) {
+
+            throw new IllegalArgumentException( "Delta must not be negative: " + bucketWidth );
+
+        }
+
+        delta = bucketWidth;
+
+    }
+
+    /**
+     * Called by MazeSolver. Generates
+     * the Maze, runs the search, and
+     * traces the result.
+     * @param inputFileName input maze
+     * @param outputFileName output traced maze
+     * @param showPlot boolean to show traced maze
+     */
+    public static void solve ( String inputFileName, String outputFileName, boolean showPlot ) {
+
+        EngineRunner.solve( new DeltaStepping(), inputFileName, outputFileName, showPlot );
+
+    }
+
+    /**
+     * Returns the name of the algorithm
+     * @return name
+     */
+    @Override
+    public String getName () {
+        return "delta";
+    }
+
+    /**
+     * Runs the delta-stepping search
+     * on the Node map
+     * @param maze Maze with its Node map built
+     * @param budget time the search may take
+     * @return how the search ended, with the path
+     */
+    @Override
+    public SolveResult search ( Maze maze, SolveBudget budget ) {
+
+        nodes = maze.getNodes();
+
+        Maze.Node start = maze.getStart();
+        Maze.Node finish = maze.getFinish();
+
+        state = new AtomicLongArray( nodes.size() );
+
+        IntStream.range( 0, nodes.size() ).parallel().forEach( i -> state.set( i, UNREACHED ) );
+
+        width = delta > 0 ? delta : averageLength( nodes );
+
+        // marks the Nodes already taken from the current bucket
+        int[] seen = new int[ nodes.size() ];
+        int round = 0;
+
+        // holds the bucket each Node was settled in, so one taken again is settled once
+        int[] settledIn = new int[ nodes.size() ];
+        Arrays.fill( settledIn, -1 );
+
+        // the settled Node closest to the finish, for a partial path
+        int finishX = finish.getXPos();
+        Maze.Node best = start;
+
+        long settledCount = 0;
+
+        relax( start, 0, start.getId() );
+
+        while ( !buckets.isEmpty() ) {
+
+            Map.Entry<Integer, ConcurrentLinkedQueue<Maze.Node>> entry = buckets.pollFirstEntry();
+
+            int index = entry.getKey();
+
+            // every later bucket is further than the finish, so its distance is final
+            if ( distance( finish ) < (long) index * width ) {
+                break;
+            }
+
+            ArrayList<Maze.Node> settled = new ArrayList<>();
+
+            ConcurrentLinkedQueue<Maze.Node> bucket = entry.getValue();
+
+            // light edges can refill this bucket, so it is emptied until it stays empty
+            while ( bucket != null ) {
+
+                ++round;
+
+                ArrayList<Maze.Node> frontier = new ArrayList<>();
+
+                for ( Maze.Node n : bucket ) {
+
+                    // skips Nodes that moved to a lower bucket or were already taken this round
+                    if ( distance( n ) / width == index && seen[ n.getId() ] != round ) {
+
+                        seen[ n.getId() ] = round;
+
+                        frontier.add( n );
+
+                    }
+
+                }
+
+                for ( Maze.Node n : frontier ) {
+
+                    if ( settledIn[ n.getId() ] != index ) {
+
+                        settledIn[ n.getId() ] = index;
+
+                        settled.add( n );
+
+                    }
+
+                }
+
+                forEach( frontier, n -> relaxEdges( n, true ) );
+
+                bucket = buckets.remove( index );
+
+            }
+
+            forEach( settled, n -> relaxEdges( n, false ) );
+
+            settledCount += settled.size();
+
+            for ( Maze.Node n : settled ) {
+
+                if ( SolveResult.toFinish( maze, finishX, n ) < SolveResult.toFinish( maze, finishX, best ) ) {
+                    best = n;
+                }
+
+            }
+
+            // a bucket holds many Nodes, so the clock is read once per bucket
+            if ( budget.exceeded() ) {
+                return SolveResult.stopped( budget, PathTrace.path( maze, best, this::previous ), settledCount );
+            }
+
+        }
+
+        if ( distance( finish ) == Integer.MAX_VALUE ) {
+            return SolveResult.noPath( settledCount );
+        }
+
+        return SolveResult.solved( PathTrace.path( maze, this::previous ), settledCount );
+
+    }
+
+    /**
+     * Relaxes either the light or the
+     * heavy edges of a Node
+     * @param n Node
+     * @param light true for edges at most width long
+     */
+    private void relaxEdges ( Maze.Node n, boolean light ) {
+
+        int d = distance( n );
+
+        for ( int i = 0; i < 4; i++ ) {
+
+            Maze.Node neighbor = n.getNeighbor( i );
+
+            if ( neighbor == null ) {
+                continue;
+            }
+
+            int length = length( n, i );
+
+            if ( ( length <= width ) == light ) {
+                relax( neighbor, d + length, n.getId() );
+            }
+
+        }
+
+    }
+
+    /**
+     * Lowers the distance of a Node
+     * if the new one is shorter, and
+     * puts the Node in its new bucket.
+     * Safe to call from many threads.
+     * @param n Node
+     * @param d new distance
+     * @param from id of the Node it is reached from
+     */
+    private void relax ( Maze.Node n, int d, int from ) {
+
+        long next = ( (long) d << 32 ) | from;
+
+        while ( true ) {
+
+            long cur = state.get( n.getId() );
+
+            if ( ( cur >>> 32 ) <= d ) {
+                return;
+            }
+
+            if ( state.compareAndSet( n.getId(), cur, next ) ) {
+
+                buckets.computeIfAbsent( d / width, k -> new ConcurrentLinkedQueue<>() ).add( n );
+
+                return;
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Returns the Node a Node
+     * was reached from
+     * @param n reached Node
+     * @return previous Node
+     */
+    private Maze.Node previous ( Maze.Node n ) {
+        return this.nodes.get( (int) state.get( n.getId() ) );
+    }
+
+    /**
+     * Returns the current distance of
+     * a Node, Integer.MAX_VALUE if it
+     * has not been reached
+     * @param n Node
+     * @return distance
+     */
+    private int distance ( Maze.Node n ) {
+        return (int) ( state.get( n.getId() ) >>> 32 );
+    }
+
+    /**
+     * Runs an action on every Node,
+     * in parallel for large rounds
+     * @param round Nodes
+     * @param action action
+     */
+    private static void forEach ( ArrayList<Maze.Node> round, Consumer<Maze.Node> action ) {
+
+        if ( round.size() < PARALLEL_ROUND ) {
+            round.forEach( action );
+        } else {
+            round.parallelStream().forEach( action );
+        }
+
+    }
+
+    /**
+     * Returns the average edge length
+     * of the Node map, rounded up
+     * @param nodes Nodes
+     * @return average edge length
+     */
+    private static int averageLength ( ArrayList<Maze.Node> nodes ) {
+
+        // east and south only, so each edge is counted once
+        long total = nodes.parallelStream().mapToLong( n -> length( n, 1 ) + length( n, 2 ) ).sum();
+
+        long edges = nodes.parallelStream().mapToLong( n ->
+                ( n.getNeighbor( 1 ) != null ? 1 : 0 ) + ( n.getNeighbor( 2 ) != null ? 1 : 0 ) ).sum();
+
+        return (int) Math.max( 1, ( total + edges - 1 ) / Math.max( 1, edges ) );
+
+    }
+
+    /**
+     * Returns the length of the edge
+     * to a neighbor, 0 if there is none
+     * @param n Node
+     * @param index direction
+     * @return edge length
+     */
+    private static int length ( Maze.Node n, int index ) {
+
+        Maze.Node neighbor = n.getNeighbor( index );
+
+        if ( neighbor == null ) {
+            return 0;
+        }
+
+        return Math.abs( neighbor.getXPos() - n.getXPos() ) + Math.abs( neighbor.getYPos() - n.getYPos() );
+
+    }
+
+}
@@ -0,0 +1,309 @@
+package algorithms;
+
+import model.Maze;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Class holds Dial's variant of
+ * the Dijkstra Shortest Path
+ * algorithm. Edge lengths are whole
+ * pixels no longer than the width or
+ * height of the Maze (C), so every
+ * queued distance lies within C of
+ * the smallest one. The queue is a
+ * circular array of C + 1 buckets
+ * indexed by distance mod (C + 1).
+ * Buckets are linked lists threaded
+ * through int arrays by Node id, so
+ * inserts, moves, and extract-min
+ * are O(1) and queueing a Node
+ * allocates nothing.
+ */
+public class Dial implements Engine {
+
+    /** marks an empty bucket or the end of a list */
+    private static final int NONE = -1;
+
+    /** holds the first Node id of each bucket */
+    private int[] head;
+
+    /** holds the next and previous Node ids in a Node's bucket */
+    private int[] next, prev;
+
+    /** holds the tentative distance of each Node */
+    private int[] distance;
+
+    /** holds the id of the Node each Node was reached from */
+    private int[] from;
+
+    /** true once a Node's distance is final */
+    private boolean[] settled;
+
+    /** holds each Node seen by the search by id */
+    private Maze.Node[] nodes;
+
+    /**
+     * Called by MazeSolver. Generates
+     * the Maze, runs the search, and
+     * traces the result.
+     * @param inputFileName input maze
+     * @param outputFileName output traced maze
+     * @param showPlot boolean to show traced maze
+     */
+    public static void solve ( String inputFileName, String outputFileName, boolean showPlot ) {
+
+        EngineRunner.solve( new Dial(), inputFileName, outputFileName, showPlot );
+
+    }
+
+    /**
+     * Returns the name of the algorithm
+     * @return name
+     */
+    @Override
+    public String getName () {
+        return "dial";
+    }
+
+    /**
+     * Runs the bucket queue search
+     * on the Node map
+     * @param maze Maze with its Node map built
+     * @param budget time the search may take
+     * @return how the search ended, with the path
+     */
+    @Override
+    public SolveResult search ( Maze maze, SolveBudget budget ) {
+
+        return this.search( maze, maze.getStart(), maze.getNodeCount(), budget );
+
+    }
+
+    /**
+     * Called before a Node's neighbors
+     * are read. Does nothing here; a
+     * search over a Node map that is
+     * still being built waits in it.
+     * @param node Node about to be expanded
+     */
+    protected void ready ( Maze.Node node ) {
+    }
+
+    /**
+     * Runs the bucket queue search
+     * from the start Node until a Node
+     * on the bottom row (the finish)
+     * is settled.
+     * @param maze Maze being searched
+     * @param startNode start Node
+     * @param capacity expected number of Nodes, arrays grow past it
+     * @param budget time the search may take
+     * @return how the search ended, with the path
+     */
+    protected SolveResult search ( Maze maze, Maze.Node startNode, int capacity, SolveBudget budget ) {
+
+        // no corridor is longer than the image, so C + 1 buckets never wrap onto each other
+        int buckets = Math.max( maze.getWidth(), maze.getHeight() ) + 1;
+
+        head = new int[ buckets ];
+        next = new int[ 0 ];
+        prev = new int[ 0 ];
+        distance = new int[ 0 ];
+        from = new int[ 0 ];
+        settled = new boolean[ 0 ];
+        nodes = new Maze.Node[ 0 ];
+
+        Arrays.fill( head, NONE );
+
+        grow( Math.max( 16, capacity ) );
+
+        int start = startNode.getId();
+        int finish = NONE;
+
+        // the settled Node closest to the finish, for a partial path
+        int finishX = maze.getFinishX();
+        int best = start;
+        int bestLeft = SolveResult.toFinish( maze, finishX, startNode );
+
+        long settledCount = 0;
+
+        nodes[ start ] = startNode;
+        distance[ start ] = 0;
+        from[ start ] = start;
+        insert( start, 0 );
+
+        int queued = 1;
+
+        // the smallest distance that can still be queued
+        int cur = 0;
+
+        while ( queued > 0 ) {
+
+            while ( head[ cur % buckets ] == NONE ) {
+                ++cur;
+            }
+
+            int u = head[ cur % buckets ];
+
+            remove( u, cur % buckets );
+
+            --queued;
+
+            settled[ u ] = true;
+
+            Maze.Node node = nodes[ u ];
+
+            // the finish is the only Node on the bottom row
+            if ( node.getYPos() == maze.getHeight() - 1 ) {
+                finish = u;
+                break;
+            }
+
+            int left = SolveResult.toFinish( maze, finishX, node );
+
+            if ( left < bestLeft ) {
+                best = u;
+                bestLeft = left;
+            }
+
+            if ( budget.exceeded( settledCount++ ) ) {
+                return SolveResult.stopped( budget, route( best, start ), settledCount );
+            }
+
+            ready( node );
+
+            for ( int i = 0; i < 4; i++ ) {
+
+                Maze.Node neighbor = node.getNeighbor( i );
+
+                if ( neighbor == null ) {
+                    continue;
+                }
+
+                int v = neighbor.getId();
+
+                if ( v >= next.length ) {
+                    grow( Math.max( v + 1, next.length * 2 ) );
+                }
+
+                if ( settled[ v ] ) {
+                    continue;
+                }
+
+                int d = distance[ u ]
+                        + Math.abs( neighbor.getXPos() - node.getXPos() )
+                        + Math.abs( neighbor.getYPos() - node.getYPos() );
+
+                if ( d < distance[ v ] ) {
+
+                    // moves a queued Node to its new bucket, or queues it
+                    if ( distance[ v ] != Integer.MAX_VALUE ) {
+                        remove( v, distance[ v ] % buckets );
+                    } else {
+                        ++queued;
+                    }
+
+                    nodes[ v ] = neighbor;
+                    distance[ v ] = d;
+                    from[ v ] = u;
+
+                    insert( v, d % buckets );
+
+                }
+
+            }
+
+        }
+
+        if ( finish == NONE ) {
+            return SolveResult.noPath( settledCount );
+        }
+
+        return SolveResult.solved( route( finish, start ), settledCount + 1 );
+
+    }
+
+    /**
+     * Returns the path from the
+     * start to a settled Node
+     * @param end settled Node id
+     * @param start start Node id
+     * @return points of the path
+     */
+    private ArrayList<int[]> route ( int end, int start ) {
+
+        ArrayList<int[]> path = new ArrayList<>();
+
+        for ( int v = end; v != start; v = from[ v ] ) {
+            path.add( new int[] { nodes[ v ].getXPos(), nodes[ v ].getYPos() } );
+        }
+
+        path.add( new int[] { nodes[ start ].getXPos(), nodes[ start ].getYPos() } );
+
+        Collections.reverse( path );
+
+        return path;
+
+    }
+
+    /**
+     * Grows the per Node arrays
+     * @param size new size
+     */
+    private void grow ( int size ) {
+
+        int old = next.length;
+
+        next = Arrays.copyOf( next, size );
+        prev = Arrays.copyOf( prev, size );
+        distance = Arrays.copyOf( distance, size );
+        from = Arrays.copyOf( from, size );
+        settled = Arrays.copyOf( settled, size );
+        nodes = Arrays.copyOf( nodes, size );
+
+        Arrays.fill( distance, old, size, Integer.MAX_VALUE );
+
+    }
+
+    /**
+     * Puts a Node at the front
+     * of a bucket
+     * @param v Node id
+     * @param bucket bucket index
+     */
+    private void insert ( int v, int bucket ) {
+
+        next[ v ] = head[ bucket ];
+        prev[ v ] = NONE;
+
+        if ( head[ bucket ] != NONE ) {
+            prev[ head[ bucket ] ] = v;
+        }
+
+        head[ bucket ] = v;
+
+    }
+
+    /**
+     * Unlinks a Node from its bucket
+     * @param v Node id
+     * @param bucket bucket index
+     */
+    private void remove ( int v, int bucket ) {
+
+        if ( prev[ v ] != NONE ) {
+            next[ prev[ v ] ] = next[ v ];
+        } else {
+            head[ bucket ] = next[ v ];
+        }
+
+        if ( next[ v ] != NONE ) {
+            prev[ next[ v ] ] = prev[ v ];
+        }
+
+    }
+
+}
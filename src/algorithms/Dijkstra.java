@@ -1,7 +1,6 @@
 package algorithms;
 
 import model.Maze;
-import gui.MazeViewer;
 
 import java.util.HashMap;
 import java.util.HashSet;
@@ -9,28 +8,31 @@ import java.util.ArrayList;
 
 /**
  * Class holds the Dijkstra
- * Shortest Path algorithm
- * and calls the PathTrace
- * when the algorithm has
- * completed.
+ * Shortest Path algorithm.
+ * The EngineRunner calls the
+ * PathTrace when the algorithm
+ * has completed.
  * @author Matt Stetter
  */
-public class Dijkstra {
+public class Dijkstra implements Engine {
 
     /** holds the queue of considered Nodes */
-    private static final ArrayList<Maze.Node> queue = new ArrayList<>();
+    private final ArrayList<Maze.Node> queue = new ArrayList<>();
 
     /** holds the considered Nodes for efficient .contains() */
-    private static final HashSet<Maze.Node> hashQueue = new HashSet<>();
+    private final HashSet<Maze.Node> hashQueue = new HashSet<>();
 
     /** holds the Nodes that are finalized */
-    private static final HashMap<Maze.Node, Maze.Node> finalized = new HashMap<>();
+    private final HashMap<Maze.Node, Maze.Node> finalized = new HashMap<>();
 
     /** holds the start and finish Node of the Maze */
-    private static Maze.Node startNode, finalNode;
+    private Maze.Node startNode, finalNode;
+
+    /** holds the finalized Node closest to the finish, for a partial path */
+    private Maze.Node bestNode;
 
     /** holds the Maze of Nodes */
-    private static Maze maze;
+    private Maze maze;
 
     /**
      * Called by MazeSolver. Generates
@@ -44,11 +46,30 @@ public class Dijkstra {
      */
     public static void solve ( String inputFileName, String outputFileName, boolean showPlot ) {
 
-        double startMazeTime = System.currentTimeMillis();
+        EngineRunner.solve( new Dijkstra(), inputFileName, outputFileName, showPlot );
+
+    }
+
+    /**
+     * Returns the name of the algorithm
+     * @return name
+     */
+    @Override
+    public String getName () {
+        return "dijkstra";
+    }
 
-        maze = new Maze( inputFileName, outputFileName );
+    /**
+     * Runs the Dijkstra search
+     * algorithm on the Node map
+     * @param imageMaze Maze with its Node map built
+     * @param budget time the search may take
+     * @return how the search ended, with the path
+     */
+    @Override
+    public SolveResult search ( Maze imageMaze, SolveBudget budget ) {
 
-        System.out.printf("Created node map: Finished in %.5f seconds.\n", (System.currentTimeMillis() - startMazeTime) / 1000.0);
+        maze = imageMaze;
 
         startNode = maze.getStart();
         finalNode = maze.getFinish();
@@ -56,31 +77,49 @@ public class Dijkstra {
         startNode.setPossible( startNode );
         startNode.setDistance(0);
 
-        double startPathTime = System.currentTimeMillis();
+        bestNode = startNode;
 
-        _solve();
+        if ( !_solve( budget ) ) {
 
-        System.out.printf("Finalized nodes: Finished in %.5f seconds.\n", (System.currentTimeMillis() - startPathTime) / 1000.0);
+            return SolveResult.stopped( budget, PathTrace.path( maze, bestNode, finalized::get ), finalized.size() );
 
-        double startTraceTime = System.currentTimeMillis();
+        }
 
-        PathTrace.trace( finalized, outputFileName, maze );
+        if ( !finalized.containsKey( finalNode ) ) {
 
-        System.out.printf("Traced node path: Finished in %.5f seconds.\n", (System.currentTimeMillis() - startTraceTime) / 1000.0);
+            return SolveResult.noPath( finalized.size() );
 
-        if ( showPlot ) {
+        }
 
-            MazeViewer.showTrace( outputFileName );
+        return SolveResult.solved( PathTrace.path( maze, finalized::get ), finalized.size() );
 
-        }
     }
 
-    private static void _solve () {
+    /**
+     * Finalizes Nodes until the
+     * finish is finalized, nothing is
+     * left, or the budget runs out
+     * @param budget time the search may take
+     * @return false if the budget ran out
+     */
+    private boolean _solve ( SolveBudget budget ) {
 
         Maze.Node cur = maze.getStart();
 
+        int finishX = finalNode.getXPos();
+
+        long expansions = 0;
+
         while ( finalized.size() < maze.getNodeCount() && !finalized.containsKey( finalNode ) ) {
 
+            if ( budget.exceeded( expansions++ ) ) {
+                return false;
+            }
+
+            if ( SolveResult.toFinish( maze, finishX, cur ) < SolveResult.toFinish( maze, finishX, bestNode ) ) {
+                bestNode = cur;
+            }
+
             if ( hashQueue.contains( cur ) ) {
 
                 queue.remove( cur );
@@ -101,7 +140,18 @@ public class Dijkstra {
 
             // weird possible edge case with completely disconnected Node
             if (considered.isEmpty()) {
+
                 finalized.put(cur, null);
+
+                // nothing left to search, the finish is unreachable
+                if ( queue.isEmpty() ) {
+                    break;
+                }
+
+                hashQueue.remove( queue.get( 0 ) );
+
+                cur = queue.remove( 0 );
+
                 continue;
             }
 
@@ -121,13 +171,14 @@ public class Dijkstra {
 
                 finalized.put( cur, cur.getPossible() );
 
-                if ( queue.size() > 0 ) {
+                // nothing left to search, the finish is unreachable
+                if ( queue.isEmpty() ) {
+                    break;
+                }
 
-                    hashQueue.remove( queue.get( 0 ) );
+                hashQueue.remove( queue.get( 0 ) );
 
-                    cur = queue.remove( 0 );
-
-                }
+                cur = queue.remove( 0 );
 
                 continue;
 
@@ -188,5 +239,8 @@ public class Dijkstra {
                 }
             }
         }
+
+        return true;
+
     }
 }
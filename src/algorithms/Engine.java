@@ -0,0 +1,44 @@
+package algorithms;
+
+import model.Maze;
+
+/**
+ * Interface for a search algorithm
+ * that finds the path through a
+ * loaded Maze. Each instance holds
+ * the state of one search.
+ */
+public interface Engine {
+
+    /**
+     * Returns the name of the
+     * algorithm as used on the
+     * command line
+     * @return name
+     */
+    String getName ();
+
+    /**
+     * Returns true if the Node map
+     * must be built before search
+     * is called. Algorithms that build
+     * it themselves return false.
+     * @return boolean
+     */
+    default boolean needsNodeMap () {
+        return true;
+    }
+
+    /**
+     * Searches the Node map of the
+     * Maze from the start to the
+     * finish, stopping early with the
+     * best partial path if the budget
+     * runs out.
+     * @param maze Maze with its Node map built
+     * @param budget time the search may take
+     * @return how the search ended, with the path
+     */
+    SolveResult search ( Maze maze, SolveBudget budget );
+
+}
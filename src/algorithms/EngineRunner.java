@@ -0,0 +1,272 @@
+package algorithms;
+
+import model.Maze;
+import gui.MazeViewer;
+
+import java.util.ArrayList;
+
+/**
+ * Class runs an Engine from the
+ * command line: it loads the Maze,
+ * runs the search, traces the path,
+ * and shows it, timing each step.
+ */
+public class EngineRunner {
+
+    /** holds the rows built between reads of the budget */
+    private static final int BAND_ROWS = 32;
+
+    /** holds the time in milliseconds a solve may take, 0 for no limit */
+    private static long timeout = 0;
+
+    /**
+     * Sets the time a solve may take
+     * @param millis time in milliseconds, 0 for no limit
+     */
+    public static void setTimeout ( long millis ) {
+
+        if ( millis < 0 ) {
+
+            throw new IllegalArgumentException( "Timeout must not be negative: " + millis );
+
+        }
+
+        timeout = millis;
+
+    }
+
+    /**
+     * Generates the Maze, runs the
+     * search algorithm, and calls
+     * the method to trace the result.
+     * @param engine search algorithm
+     * @param inputFileName input maze
+     * @param outputFileName output traced maze
+     * @param showPlot boolean to show traced maze
+     */
+    public static void solve ( Engine engine, String inputFileName, String outputFileName, boolean showPlot ) {
+
+        Maze maze = load( inputFileName );
+
+        if ( maze != null ) {
+            solve( engine, maze, inputFileName, outputFileName, showPlot );
+        }
+
+    }
+
+    /**
+     * Loads the Maze image without
+     * its Node map and runs the
+     * reachability check if enabled.
+     * @param inputFileName input maze
+     * @return the Maze, or null if it was rejected
+     */
+    public static Maze load ( String inputFileName ) {
+
+        double startLoadTime = System.currentTimeMillis();
+
+        Maze maze = new Maze( inputFileName, false );
+
+        System.out.printf("Loaded maze: Finished in %.5f seconds.\n", (System.currentTimeMillis() - startLoadTime) / 1000.0);
+
+        // rejects mazes whose finish cannot be reached before building any Nodes
+        if ( Reachability.isEnabled() && !Reachability.check( maze ) ) {
+
+            System.out.println("No path: the finish cannot be reached from the start.");
+
+            return null;
+
+        }
+
+        return maze;
+
+    }
+
+    /**
+     * Builds the Node map of a loaded
+     * Maze if the algorithm needs it,
+     * runs the search algorithm,
+     * and calls the method to trace
+     * the result. A search that runs
+     * out of time traces its partial path.
+     * @param engine search algorithm
+     * @param maze Maze loaded without its Node map
+     * @param inputFileName input maze
+     * @param outputFileName output traced maze
+     * @param showPlot boolean to show traced maze
+     */
+    public static void solve ( Engine engine, Maze maze, String inputFileName, String outputFileName, boolean showPlot ) {
+
+        report( run( engine, maze, budget() ), maze, inputFileName, outputFileName, showPlot );
+
+    }
+
+    /**
+     * Prints how a search ended and
+     * traces its path or partial path
+     * @param result how the search ended
+     * @param maze searched Maze
+     * @param inputFileName input maze
+     * @param outputFileName output traced maze
+     * @param showPlot boolean to show traced maze
+     */
+    static void report ( SolveResult result, Maze maze, String inputFileName, String outputFileName, boolean showPlot ) {
+
+        if ( result.getStatus() == SolveResult.Status.NO_PATH ) {
+
+            if ( maze.getStartX() < 0 || maze.getFinishX() < 0 ) {
+
+                System.out.println("No path: the maze has no start or finish opening.");
+
+            } else {
+
+                System.out.println("No path: the finish cannot be reached from the start.");
+
+            }
+
+            return;
+
+        }
+
+        if ( !result.isSolved() ) {
+
+            System.out.printf("%s: settled %d nodes.\n",
+                    result.getStatus() == SolveResult.Status.TIMED_OUT ? "Timed out" : "Cancelled", result.getSettled());
+
+            if ( !result.isPartial() ) {
+                return;
+            }
+
+            int[] end = result.getPath().get( result.getPath().size() - 1 );
+
+            System.out.printf("Partial path: ends at (%d, %d), %d pixels from the finish.\n",
+                    end[0], end[1], Math.abs( maze.getFinishX() - end[0] ) + ( maze.getHeight() - 1 - end[1] ));
+
+        }
+
+        double startTraceTime = System.currentTimeMillis();
+
+        ArrayList<int[]> path = PathTrace.trace( result.getPath(), outputFileName, maze );
+
+        System.out.printf("Traced node path: Finished in %.5f seconds.\n", (System.currentTimeMillis() - startTraceTime) / 1000.0);
+
+        if ( showPlot ) {
+
+            // other formats are not images, so the input maze is shown under the path
+            MazeViewer.showTrace( PathTrace.getFormat().equals( "png" ) ? outputFileName : inputFileName, path );
+
+        }
+    }
+
+    /**
+     * Returns a budget for one solve,
+     * running out after the timeout
+     * @return budget
+     */
+    public static SolveBudget budget () {
+        return SolveBudget.timeout( timeout );
+    }
+
+    /**
+     * Builds the Node map of a loaded
+     * Maze if the algorithm needs it
+     * and runs the search algorithm
+     * within the budget. The budget also
+     * covers building the Node map. If
+     * it runs out during the build, the
+     * solve stops there without a path.
+     * @param engine search algorithm
+     * @param maze Maze loaded without its Node map
+     * @param budget time the build and search may take
+     * @return how the search ended, with the path
+     */
+    public static SolveResult run ( Engine engine, Maze maze, SolveBudget budget ) {
+
+        if ( engine.needsNodeMap() ) {
+
+            // the deadline is a hard limit, so no search starts after it
+            if ( !buildNodeMap( maze, budget ) ) {
+                return SolveResult.stopped( budget, null, 0 );
+            }
+
+            if ( maze.getStart() == null || maze.getFinish() == null ) {
+                return SolveResult.noPath( 0 );
+            }
+
+            if ( budget.exceeded() ) {
+                return SolveResult.stopped( budget, null, 0 );
+            }
+
+        }
+
+        double startPathTime = System.currentTimeMillis();
+
+        SolveResult result = engine.search( maze, budget );
+
+        System.out.printf("Finalized nodes (%s): Finished in %.5f seconds.\n", engine.getName(), (System.currentTimeMillis() - startPathTime) / 1000.0);
+
+        if ( result.getMade() > 0 ) {
+            System.out.printf("Lazy node map: made %d nodes.\n", result.getMade());
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Builds the Node map, reading the
+     * budget every BAND_ROWS rows and
+     * stopping part way once it runs out
+     * @param maze Maze loaded without its Node map
+     * @param budget time the build may take
+     * @return true if the whole Node map was built
+     */
+    static boolean buildNodeMap ( Maze maze, SolveBudget budget ) {
+
+        double startMazeTime = System.currentTimeMillis();
+
+        try {
+
+            maze.getNodeMap( BAND_ROWS, rows -> {
+
+                if ( budget.exceeded() ) {
+                    throw new BuildStopped();
+                }
+
+            } );
+
+        } catch ( BuildStopped e ) {
+
+            System.out.printf("Stopped node map: Finished in %.5f seconds.\n", (System.currentTimeMillis() - startMazeTime) / 1000.0);
+
+            return false;
+
+        }
+
+        System.out.printf("Created node map: Finished in %.5f seconds.\n", (System.currentTimeMillis() - startMazeTime) / 1000.0);
+
+        return true;
+
+    }
+
+    /**
+     * Thrown through the Node map
+     * build to stop it early
+     */
+    static class BuildStopped extends RuntimeException {
+
+        /** holds the serialization version */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Constructor for BuildStopped,
+         * without a stack trace since it
+         * is never shown
+         */
+        BuildStopped () {
+            super( null, null, false, false );
+        }
+
+    }
+
+}
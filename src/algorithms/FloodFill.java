@@ -0,0 +1,369 @@
+package algorithms;
+
+import model.Maze;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Class holds a breadth first search
+ * on the packed pixels of a Maze,
+ * 64 pixels to a word. Each generation
+ * shifts the frontier words left and
+ * right within their row, ORs them into
+ * the rows above and below, and ANDs
+ * the result with the open pixels that
+ * are not reached yet. Only the words
+ * the frontier touches are visited, so
+ * a generation costs the length of the
+ * wavefront, not the image. Each reached
+ * pixel keeps its generation mod 3 in
+ * two bitplanes (0 means not reached),
+ * which is enough to step back from the
+ * finish to a neighbor one generation
+ * earlier. No Node map is built.
+ */
+public class FloodFill implements Engine {
+
+    /** holds the low and high bit of each pixel's generation mod 3 + 1 */
+    private long[] low, high;
+
+    /** holds the bits moved into each word this generation, zero outside it */
+    private long[] next;
+
+    /** holds the words of the frontier */
+    private int[] active = new int[ 1024 ];
+
+    /** holds the frontier pixels of each frontier word */
+    private long[] activeBits = new long[ 1024 ];
+
+    /** holds the number of frontier words */
+    private int activeCount;
+
+    /** holds the words changed this generation */
+    private int[] touched = new int[ 4096 ];
+
+    /** holds the number of words changed this generation */
+    private int touchedCount;
+
+    /**
+     * Called by MazeSolver. Loads the
+     * Maze, runs the search, and
+     * traces the result.
+     * @param inputFileName input maze
+     * @param outputFileName output traced maze
+     * @param showPlot boolean to show traced maze
+     */
+    public static void solve ( String inputFileName, String outputFileName, boolean showPlot ) {
+
+        EngineRunner.solve( new FloodFill(), inputFileName, outputFileName, showPlot );
+
+    }
+
+    /**
+     * Returns the name of the algorithm
+     * @return name
+     */
+    @Override
+    public String getName () {
+        return "flood";
+    }
+
+    /**
+     * Returns false, the search
+     * reads the packed pixels
+     * @return false
+     */
+    @Override
+    public boolean needsNodeMap () {
+        return false;
+    }
+
+    /**
+     * Floods the Maze from the start
+     * one generation at a time until
+     * the finish is reached
+     * @param maze Maze loaded without its Node map
+     * @param budget time the search may take
+     * @return how the search ended, with the path
+     */
+    @Override
+    public SolveResult search ( Maze maze, SolveBudget budget ) {
+
+        int startX = maze.getStartX();
+        int finishX = maze.getFinishX();
+
+        if ( startX < 0 || finishX < 0 ) {
+            return SolveResult.noPath( 0 );
+        }
+
+        int height = maze.getHeight();
+        int words = maze.getWordsPerRow();
+        long[] pixels = maze.getPackedPixels();
+
+        low = new long[ pixels.length ];
+        high = new long[ pixels.length ];
+        next = new long[ pixels.length ];
+
+        int finishWord = ( height - 1 ) * words + ( finishX >>> 6 );
+        long finishBit = 1L << finishX;
+
+        activeCount = 0;
+
+        addActive( startX >>> 6, 1L << startX );
+        mark( startX >>> 6, 1L << startX, 0 );
+
+        long reached = 1;
+        int generation = 0;
+
+        while ( ( ( low[ finishWord ] | high[ finishWord ] ) & finishBit ) == 0 ) {
+
+            if ( activeCount == 0 ) {
+                return SolveResult.noPath( reached );
+            }
+
+            // a generation touches many words, so the clock is read once per generation
+            if ( budget.exceeded() ) {
+                return SolveResult.stopped( budget, this.partial( maze, finishX, generation ), reached );
+            }
+
+            ++generation;
+
+            touchedCount = 0;
+
+            for ( int a = 0; a < activeCount; a++ ) {
+
+                int k = active[ a ];
+                long f = activeBits[ a ];
+
+                int i = k % words;
+
+                // moves along the row, carrying across word edges
+                spread( k, ( f << 1 ) | ( f >>> 1 ) );
+
+                if ( i + 1 < words ) {
+                    spread( k + 1, f >>> 63 );
+                }
+
+                if ( i > 0 ) {
+                    spread( k - 1, f << 63 );
+                }
+
+                // moves to the rows above and below
+                if ( k >= words ) {
+                    spread( k - words, f );
+                }
+
+                if ( k + words < pixels.length ) {
+                    spread( k + words, f );
+                }
+
+            }
+
+            activeCount = 0;
+
+            for ( int t = 0; t < touchedCount; t++ ) {
+
+                int k = touched[ t ];
+
+                long n = next[ k ] & pixels[ k ] & ~( low[ k ] | high[ k ] );
+
+                next[ k ] = 0;
+
+                if ( n != 0 ) {
+
+                    mark( k, n, generation );
+
+                    addActive( k, n );
+
+                    reached += Long.bitCount( n );
+
+                }
+
+            }
+
+        }
+
+        return SolveResult.solved( this.backtrack( maze, finishX, height - 1, generation ), reached );
+
+    }
+
+    /**
+     * Returns the path to the frontier
+     * pixel closest to the finish
+     * @param maze searched Maze
+     * @param finishX x position of the finish
+     * @param generation generation of the frontier
+     * @return points of the partial path
+     */
+    private ArrayList<int[]> partial ( Maze maze, int finishX, int generation ) {
+
+        int words = maze.getWordsPerRow();
+
+        int bestX = -1, bestY = -1, bestLeft = Integer.MAX_VALUE;
+
+        for ( int a = 0; a < activeCount; a++ ) {
+
+            long bits = activeBits[ a ];
+
+            while ( bits != 0 ) {
+
+                int x = ( ( active[ a ] % words ) << 6 ) + Long.numberOfTrailingZeros( bits );
+                int y = active[ a ] / words;
+
+                int left = Math.abs( finishX - x ) + ( maze.getHeight() - 1 - y );
+
+                if ( left < bestLeft ) {
+                    bestX = x;
+                    bestY = y;
+                    bestLeft = left;
+                }
+
+                bits &= bits - 1;
+
+            }
+
+        }
+
+        return this.backtrack( maze, bestX, bestY, generation );
+
+    }
+
+    /**
+     * Steps back from a reached pixel
+     * to a neighbor one generation
+     * earlier until reaching the start.
+     * Neighbors are at most one generation
+     * apart, so generation mod 3 tells
+     * the earlier one apart.
+     * @param maze searched Maze
+     * @param x x position of the last pixel
+     * @param y y position of the last pixel
+     * @param generation generation of the last pixel
+     * @return points of the path from the start
+     */
+    private ArrayList<int[]> backtrack ( Maze maze, int x, int y, int generation ) {
+
+        int[] dx = { 0, 1, 0, -1 };
+        int[] dy = { -1, 0, 1, 0 };
+
+        ArrayList<int[]> path = new ArrayList<>();
+
+        path.add( new int[] { x, y } );
+
+        for ( int g = generation; g > 0; g-- ) {
+
+            int code = ( g - 1 ) % 3 + 1;
+
+            for ( int i = 0; i < 4; i++ ) {
+
+                int nx = x + dx[ i ];
+                int ny = y + dy[ i ];
+
+                if ( nx >= 0 && ny >= 0 && nx < maze.getWidth() && ny < maze.getHeight()
+                        && this.code( maze, nx, ny ) == code ) {
+
+                    x = nx;
+                    y = ny;
+
+                    break;
+
+                }
+
+            }
+
+            path.add( new int[] { x, y } );
+
+        }
+
+        Collections.reverse( path );
+
+        return path;
+
+    }
+
+    /**
+     * Returns the generation mod 3 + 1
+     * of a pixel, 0 if it is not reached
+     * @param maze searched Maze
+     * @param x x position
+     * @param y y position
+     * @return code
+     */
+    private int code ( Maze maze, int x, int y ) {
+
+        int k = y * maze.getWordsPerRow() + ( x >>> 6 );
+
+        return (int) ( ( low[ k ] >>> x ) & 1 ) | (int) ( ( ( high[ k ] >>> x ) & 1 ) << 1 );
+
+    }
+
+    /**
+     * Records the generation of
+     * newly reached pixels
+     * @param k word
+     * @param bits reached pixels
+     * @param generation generation
+     */
+    private void mark ( int k, long bits, int generation ) {
+
+        int code = generation % 3 + 1;
+
+        if ( ( code & 1 ) != 0 ) {
+            low[ k ] |= bits;
+        }
+
+        if ( ( code & 2 ) != 0 ) {
+            high[ k ] |= bits;
+        }
+
+    }
+
+    /**
+     * Adds bits moved into a word
+     * this generation
+     * @param k word
+     * @param bits moved bits
+     */
+    private void spread ( int k, long bits ) {
+
+        if ( bits == 0 ) {
+            return;
+        }
+
+        if ( next[ k ] == 0 ) {
+
+            if ( touchedCount == touched.length ) {
+                touched = Arrays.copyOf( touched, touched.length * 2 );
+            }
+
+            touched[ touchedCount++ ] = k;
+
+        }
+
+        next[ k ] |= bits;
+
+    }
+
+    /**
+     * Adds a word to the frontier
+     * of the next generation
+     * @param k word
+     * @param bits frontier pixels
+     */
+    private void addActive ( int k, long bits ) {
+
+        if ( activeCount == active.length ) {
+            active = Arrays.copyOf( active, active.length * 2 );
+            activeBits = Arrays.copyOf( activeBits, activeBits.length * 2 );
+        }
+
+        active[ activeCount ] = k;
+        activeBits[ activeCount ] = bits;
+
+        ++activeCount;
+
+    }
+
+}
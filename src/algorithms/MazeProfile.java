@@ -0,0 +1,175 @@
+package algorithms;
+
+import model.Maze;
+
+/**
+ * Class holds a quick profile of a
+ * loaded Maze, taken from a sample
+ * of its rows before any Node map is
+ * built: how much of it is open, how
+ * many open pixels are junctions or
+ * dead ends, and how many Nodes the
+ * Node map kernel places per row.
+ */
+public class MazeProfile {
+
+    /** holds the most rows sampled */
+    private static final int SAMPLE_ROWS = 512;
+
+    /** holds the estimated bytes of one Node with its neighbor list */
+    public static final int NODE_BYTES = 104;
+
+    /** holds the width and height of the Maze */
+    private final int width, height;
+
+    /** holds the share of sampled pixels that are open */
+    private final double openDensity;
+
+    /** holds the share of open pixels with three or four open neighbors */
+    private final double junctionRatio;
+
+    /** holds the share of open pixels with exactly one open neighbor */
+    private final double deadEndRatio;
+
+    /** holds the estimated number of Nodes in the Node map */
+    private final long estimatedNodes;
+
+    /**
+     * Samples evenly spaced rows
+     * of the Maze
+     * @param maze Maze, the Node map is not needed
+     */
+    public MazeProfile ( Maze maze ) {
+
+        this.width = maze.getWidth();
+        this.height = maze.getHeight();
+
+        long[] pixels = maze.getPackedPixels();
+        int words = maze.getWordsPerRow();
+        long[] mask = new long[ words ];
+
+        int inner = Math.max( 0, this.height - 2 );
+        int step = Math.max( 1, inner / SAMPLE_ROWS );
+
+        long sampled = 0, open = 0, junctions = 0, deadEnds = 0, nodes = 0;
+        int rows = 0;
+
+        for ( int y = 1; y < this.height - 1; y += step ) {
+
+            int row = y * words;
+
+            maze.nodeRow( y, mask );
+
+            for ( int i = 0; i < words; i++ ) {
+
+                long cur = pixels[ row + i ];
+
+                // open neighbors of every pixel in the word
+                long l = cur << 1 | ( i > 0 ? pixels[ row + i - 1 ] >>> 63 : 0 );
+                long r = cur >>> 1 | ( i + 1 < words ? pixels[ row + i + 1 ] << 63 : 0 );
+                long u = pixels[ row - words + i ];
+                long d = pixels[ row + words + i ];
+
+                long atLeastThree = ( l & r & ( u | d ) ) | ( u & d & ( l | r ) );
+
+                // an odd count that is not three is one
+                long one = ( l ^ r ^ u ^ d ) & ~atLeastThree;
+
+                open += Long.bitCount( cur );
+                junctions += Long.bitCount( cur & atLeastThree );
+                deadEnds += Long.bitCount( cur & one );
+                nodes += Long.bitCount( mask[i] );
+
+            }
+
+            sampled += this.width;
+            ++rows;
+
+        }
+
+        this.openDensity = sampled == 0 ? 0 : (double) open / sampled;
+        this.junctionRatio = open == 0 ? 0 : (double) junctions / open;
+        this.deadEndRatio = open == 0 ? 0 : (double) deadEnds / open;
+        this.estimatedNodes = rows == 0 ? 2 : nodes * inner / rows + 2;
+
+    }
+
+    /**
+     * Returns the number of pixels
+     * @return pixels
+     */
+    public long getPixels () {
+        return (long) this.width * this.height;
+    }
+
+    /**
+     * Returns the share of pixels
+     * that are open
+     * @return open density
+     */
+    public double getOpenDensity () {
+        return this.openDensity;
+    }
+
+    /**
+     * Returns the share of open
+     * pixels that are junctions
+     * @return junction ratio
+     */
+    public double getJunctionRatio () {
+        return this.junctionRatio;
+    }
+
+    /**
+     * Returns the share of open
+     * pixels that are dead ends
+     * @return dead end ratio
+     */
+    public double getDeadEndRatio () {
+        return this.deadEndRatio;
+    }
+
+    /**
+     * Returns the estimated number
+     * of Nodes in the Node map
+     * @return Nodes
+     */
+    public long getEstimatedNodes () {
+        return this.estimatedNodes;
+    }
+
+    /**
+     * Returns the estimated bytes of
+     * the Node map plus a search that
+     * keeps the given bytes per Node
+     * @param searchBytesPerNode search state per Node
+     * @return bytes
+     */
+    public long estimateBytes ( int searchBytesPerNode ) {
+        return this.estimatedNodes * ( NODE_BYTES + searchBytesPerNode );
+    }
+
+    /**
+     * Returns true if the Maze looks
+     * perfect (one route, many dead
+     * ends) rather than braided
+     * (loops, few dead ends)
+     * @return boolean
+     */
+    public boolean looksPerfect () {
+        return this.deadEndRatio >= this.junctionRatio / 2;
+    }
+
+    /**
+     * toString override, returns
+     * the profile on one line
+     * @return profile
+     */
+    @Override
+    public String toString () {
+        return String.format( "%dx%d, %.1f%% open, %.2f%% junctions, %.2f%% dead ends, ~%d nodes (%s)",
+                this.width, this.height, this.openDensity * 100, this.junctionRatio * 100,
+                this.deadEndRatio * 100, this.estimatedNodes, this.looksPerfect() ? "looks perfect" : "looks braided" );
+    }
+
+}
@@ -4,25 +4,172 @@ import model.Maze;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.awt.image.WritableRaster;
 import java.awt.Color;
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
-import java.io.IOException;
-import java.util.HashMap;
-import java.io.File;
-
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.function.UnaryOperator;
+
+/**
+ * Class writes the solved path
+ * to the output file. The path
+ * can be drawn onto a PNG of the
+ * maze or written on its own as
+ * a waypoint list (json, bin) or
+ * an SVG overlay.
+ */
 public class PathTrace {
 
     private static final int TRACE_COLOR = Color.RED.getRGB();
 
-    private static HashMap<Maze.Node, Maze.Node> nodeMap;
+    /** magic number at the start of a bin path file ("MZPT") */
+    public static final int BIN_MAGIC = 0x4D5A5054;
+
+    /** List of output formats */
+    public static final String[] formats = {
+            "png", "json", "bin", "svg"
+    };
+
+    /** holds the chosen output format */
+    private static String format = "png";
+
+    /** holds the PNG deflate level (0-9), -1 uses the writer default */
+    private static int deflateLevel = -1;
+
+    /** true if the PNG is written as a 2-bit palette image instead of ARGB */
+    private static boolean palette = false;
+
+    private static ArrayList<int[]> waypoints;
 
     private static String outFileName;
 
     private static Maze nodeMaze;
 
-    public static void trace ( HashMap<Maze.Node, Maze.Node> finalized, String outputFileName, Maze imageMaze ) {
+    /**
+     * Sets the output format
+     * @param outputFormat one of png, json, bin, svg
+     */
+    public static void setFormat ( String outputFormat ) {
+
+        for ( String f : formats ) {
+
+            if ( f.equals( outputFormat ) ) {
+
+                format = f;
+
+                return;
+
+            }
+
+        }
+
+        throw new IllegalArgumentException( "Unknown output format: " + outputFormat );
+
+    }
+
+    /**
+     * Sets the deflate level
+     * used for PNG output
+     * @param level 0 (store) to 9 (smallest)
+     */
+    public static void setDeflateLevel ( int level ) {
+
+        if ( level < 0 || level > 9 ) {
+
+            throw new IllegalArgumentException( "Deflate level must be between 0 and 9: " + level );
+
+        }
+
+        deflateLevel = level;
+
+    }
+
+    /**
+     * Sets whether the PNG is
+     * written as a palette image
+     * (black, white, trace color)
+     * @param usePalette boolean
+     */
+    public static void setPalette ( boolean usePalette ) {
+        palette = usePalette;
+    }
+
+    /**
+     * Returns the chosen output format
+     * @return output format
+     */
+    public static String getFormat () {
+        return format;
+    }
+
+    /**
+     * Follows the Node each Node was
+     * reached from, starting at the
+     * finish, and returns the path
+     * from the start to the finish.
+     * @param imageMaze solved Maze
+     * @param previous returns the Node a Node was reached from
+     * @return points of the path
+     */
+    public static ArrayList<int[]> path ( Maze imageMaze, UnaryOperator<Maze.Node> previous ) {
+
+        return path( imageMaze, imageMaze.getFinish(), previous );
+
+    }
+
+    /**
+     * Follows the Node each Node was
+     * reached from, starting at the
+     * given Node, and returns the path
+     * from the start to it.
+     * @param imageMaze Maze being solved
+     * @param end last Node of the path
+     * @param previous returns the Node a Node was reached from
+     * @return points of the path
+     */
+    public static ArrayList<int[]> path ( Maze imageMaze, Maze.Node end, UnaryOperator<Maze.Node> previous ) {
+
+        ArrayList<int[]> path = new ArrayList<>();
+
+        Maze.Node cur = end;
+
+        while ( !cur.equals( imageMaze.getStart() ) ) {
+
+            path.add( new int[] { cur.getXPos(), cur.getYPos() } );
+
+            cur = previous.apply( cur );
+
+        }
+
+        path.add( new int[] { cur.getXPos(), cur.getYPos() } );
 
-        nodeMap = finalized;
+        Collections.reverse( path );
+
+        return path;
+
+    }
+
+    /**
+     * Traces a path given as a list
+     * of {x, y} points from the start
+     * to the finish. Consecutive points
+     * must share a row or column.
+     * @param path points of the path
+     * @param outputFileName output file
+     * @param imageMaze solved Maze
+     * @return the waypoints of the path
+     */
+    public static ArrayList<int[]> trace ( ArrayList<int[]> path, String outputFileName, Maze imageMaze ) {
+
+        waypoints = compress( path );
 
         outFileName = outputFileName;
 
@@ -30,86 +177,348 @@ public class PathTrace {
 
         _trace();
 
+        return waypoints;
+
     }
 
-    private static void _trace (  ) {
+    /**
+     * Removes points in the middle of
+     * straight runs so that only the
+     * start, the turns, and the finish
+     * are left.
+     * @param path points of the path
+     * @return waypoints
+     */
+    private static ArrayList<int[]> compress ( ArrayList<int[]> path ) {
+
+        ArrayList<int[]> compressed = new ArrayList<>();
+
+        for ( int[] p : path ) {
+
+            int size = compressed.size();
+
+            if ( size > 0 && compressed.get( size - 1 )[0] == p[0] && compressed.get( size - 1 )[1] == p[1] ) {
 
-        BufferedImage oldOutputSolution;
+                continue;
+
+            }
+
+            if ( size > 1 ) {
+
+                int[] a = compressed.get( size - 2 );
+                int[] b = compressed.get( size - 1 );
+
+                if ( ( a[0] == b[0] && b[0] == p[0] ) || ( a[1] == b[1] && b[1] == p[1] ) ) {
+
+                    compressed.set( size - 1, p );
+
+                    continue;
+
+                }
+
+            }
+
+            compressed.add( p );
+
+        }
+
+        return compressed;
+
+    }
+
+    private static void _trace (  ) {
 
         try {
-            oldOutputSolution = ImageIO.read( new File ( outFileName ) );
+
+            switch ( format ) {
+
+                case "json":
+                    writeJson();
+                    break;
+
+                case "bin":
+                    writeBin();
+                    break;
+
+                case "svg":
+                    writeSvg();
+                    break;
+
+                default:
+                    writePng();
+                    break;
+
+            }
+
         } catch ( IOException e ) {
-            System.out.println("Could not find output file.");
-            return;
+            System.err.println("Could not write to solution");
         }
 
-        BufferedImage outputSolution = new BufferedImage( oldOutputSolution.getWidth(), oldOutputSolution.getHeight(), BufferedImage.TYPE_INT_ARGB );
-        Graphics2D g = outputSolution.createGraphics();
-        g.drawImage( oldOutputSolution, 0, 0, null );
-        g.dispose();
+    }
 
-        outputSolution.setRGB( nodeMaze.getStart().getXPos(), nodeMaze.getStart().getYPos(), TRACE_COLOR );
+    /**
+     * Writes the waypoints as
+     * a json object with the
+     * maze size and path length.
+     */
+    private static void writeJson () throws IOException {
 
-        Maze.Node cur = nodeMaze.getFinish();
+        StringBuilder sb = new StringBuilder();
 
-        while ( !cur.equals( nodeMaze.getStart() ) ) {
+        sb.append( "{\"width\":" ).append( nodeMaze.getWidth() )
+                .append( ",\"height\":" ).append( nodeMaze.getHeight() )
+                .append( ",\"length\":" ).append( pathLength() )
+                .append( ",\"waypoints\":[" );
 
-            Maze.Node pathNode = nodeMap.get( new Maze.Node ( cur.getXPos(), cur.getYPos() ) );
+        for ( int i = 0; i < waypoints.size(); i++ ) {
 
-            if ( cur.getXPos() == pathNode.getXPos() ) {
+            if ( i > 0 ) {
+                sb.append( ',' );
+            }
 
-                if ( cur.getYPos() > pathNode.getYPos() ) {
+            sb.append( '[' ).append( waypoints.get( i )[0] ).append( ',' ).append( waypoints.get( i )[1] ).append( ']' );
 
-                    for ( int i = cur.getYPos(); i > pathNode.getYPos(); i-- ) {
+        }
 
+        sb.append( "]}\n" );
 
-                        outputSolution.setRGB( cur.getXPos(), i, TRACE_COLOR );
+        try ( Writer w = new BufferedWriter( new FileWriter( outFileName ) ) ) {
+            w.write( sb.toString() );
+        }
 
-                    }
+    }
 
-                } else {
+    /**
+     * Writes the path run length
+     * encoded: magic, width, height,
+     * start x and y, run count, then
+     * a direction byte (0 : north,
+     * 1 : east, 2 : south, 3 : west)
+     * and an int length per run.
+     */
+    private static void writeBin () throws IOException {
 
-                    for ( int i = cur.getYPos(); i < pathNode.getYPos(); i++ ) {
+        try ( DataOutputStream os = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( outFileName ) ) ) ) {
 
-                        outputSolution.setRGB( cur.getXPos(), i, TRACE_COLOR );
+            os.writeInt( BIN_MAGIC );
+            os.writeInt( nodeMaze.getWidth() );
+            os.writeInt( nodeMaze.getHeight() );
+            os.writeInt( waypoints.get( 0 )[0] );
+            os.writeInt( waypoints.get( 0 )[1] );
+            os.writeInt( waypoints.size() - 1 );
 
-                    }
+            for ( int i = 1; i < waypoints.size(); i++ ) {
 
+                int[] a = waypoints.get( i - 1 );
+                int[] b = waypoints.get( i );
+
+                int direction;
+
+                if ( a[0] == b[0] ) {
+                    direction = b[1] < a[1] ? 0 : 2;
+                } else {
+                    direction = b[0] > a[0] ? 1 : 3;
                 }
 
-            } else {
+                os.writeByte( direction );
+                os.writeInt( Math.abs( b[0] - a[0] ) + Math.abs( b[1] - a[1] ) );
 
-                if ( cur.getXPos() > pathNode.getXPos() ) {
+            }
 
-                    for ( int i = cur.getXPos(); i > pathNode.getXPos(); i-- ) {
+        }
 
-                        outputSolution.setRGB( i, cur.getYPos(), TRACE_COLOR );
+    }
 
-                    }
+    /**
+     * Writes the path as an SVG
+     * polyline the size of the maze
+     * which can be laid over the
+     * input image.
+     */
+    private static void writeSvg () throws IOException {
 
-                } else {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append( "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" ).append( nodeMaze.getWidth() )
+                .append( "\" height=\"" ).append( nodeMaze.getHeight() )
+                .append( "\" viewBox=\"0 0 " ).append( nodeMaze.getWidth() ).append( ' ' ).append( nodeMaze.getHeight() )
+                .append( "\" shape-rendering=\"crispEdges\">\n" )
+                .append( "<polyline fill=\"none\" stroke=\"red\" stroke-width=\"1\" points=\"" );
+
+        for ( int[] p : waypoints ) {
 
-                    for ( int i = cur.getXPos(); i < pathNode.getXPos(); i++ ) {
+            sb.append( p[0] ).append( ".5," ).append( p[1] ).append( ".5 " );
 
-                        outputSolution.setRGB( i, cur.getYPos(), TRACE_COLOR );
+        }
+
+        sb.append( "\"/>\n</svg>\n" );
 
+        try ( Writer w = new BufferedWriter( new FileWriter( outFileName ) ) ) {
+            w.write( sb.toString() );
+        }
+
+    }
+
+    /**
+     * Draws the path onto the input
+     * image and writes it to the
+     * output file as a PNG.
+     */
+    private static void writePng () throws IOException {
+
+        BufferedImage outputSolution;
+
+        if ( palette ) {
+
+            // built from the packed pixels, so the input image is not read again
+            outputSolution = toPalette( nodeMaze );
+
+            WritableRaster raster = outputSolution.getRaster();
+
+            for ( int i = 1; i < waypoints.size(); i++ ) {
+
+                int[] a = waypoints.get( i - 1 );
+                int[] b = waypoints.get( i );
+
+                for ( int y = Math.min( a[1], b[1] ); y <= Math.max( a[1], b[1] ); y++ ) {
+                    for ( int x = Math.min( a[0], b[0] ); x <= Math.max( a[0], b[0] ); x++ ) {
+                        raster.setSample( x, y, 0, 2 );
                     }
+                }
+
+            }
+
+        } else {
+
+            BufferedImage oldOutputSolution;
+
+            try {
+                oldOutputSolution = ImageIO.read( new File ( nodeMaze.getImageName() ) );
+            } catch ( IOException e ) {
+                System.out.println("Could not find input file.");
+                return;
+            }
 
+            outputSolution = new BufferedImage( oldOutputSolution.getWidth(), oldOutputSolution.getHeight(), BufferedImage.TYPE_INT_ARGB );
+            Graphics2D g = outputSolution.createGraphics();
+            g.drawImage( oldOutputSolution, 0, 0, null );
+            g.dispose();
+
+            for ( int i = 1; i < waypoints.size(); i++ ) {
+
+                int[] a = waypoints.get( i - 1 );
+                int[] b = waypoints.get( i );
+
+                for ( int y = Math.min( a[1], b[1] ); y <= Math.max( a[1], b[1] ); y++ ) {
+                    for ( int x = Math.min( a[0], b[0] ); x <= Math.max( a[0], b[0] ); x++ ) {
+                        outputSolution.setRGB( x, y, TRACE_COLOR );
+                    }
                 }
 
             }
 
-            cur = pathNode;
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName( "png" ).next();
+
+        ImageWriteParam param = writer.getDefaultWriteParam();
+
+        // the PNG writer maps quality q to deflate level 9 - round(9 * q)
+        if ( deflateLevel >= 0 ) {
+            param.setCompressionMode( ImageWriteParam.MODE_EXPLICIT );
+            param.setCompressionQuality( ( 9 - deflateLevel ) / 9f );
+        }
+
+        try ( OutputStream os = new BufferedOutputStream( new FileOutputStream( outFileName ) );
+              ImageOutputStream ios = ImageIO.createImageOutputStream( os ) ) {
+
+            writer.setOutput( ios );
+            writer.write( null, new IIOImage( outputSolution, null, null ), param );
+
+        } finally {
+            writer.dispose();
+        }
+
+    }
+
+    /**
+     * Builds a 2-bit palette image
+     * holding black (0), white (1),
+     * and the trace color (2) from the
+     * packed pixels of the Maze. Four
+     * pixels fit in a byte, so each
+     * byte is looked up from four bits
+     * of a packed row.
+     * @param maze Maze being traced
+     * @return palette image
+     */
+    private static BufferedImage toPalette ( Maze maze ) {
+
+        Color trace = new Color( TRACE_COLOR );
+
+        byte[] r = { 0, (byte) 255, (byte) trace.getRed(), 0 };
+        byte[] g = { 0, (byte) 255, (byte) trace.getGreen(), 0 };
+        byte[] b = { 0, (byte) 255, (byte) trace.getBlue(), 0 };
+
+        IndexColorModel colors = new IndexColorModel( 2, 4, r, g, b );
+
+        int width = maze.getWidth();
+        int words = maze.getWordsPerRow();
+        long[] pixels = maze.getPackedPixels();
+
+        BufferedImage out = new BufferedImage( width, maze.getHeight(), BufferedImage.TYPE_BYTE_BINARY, colors );
+
+        byte[] data = ( (DataBufferByte) out.getRaster().getDataBuffer() ).getData();
+
+        // the first pixel of a byte is in its two high bits
+        byte[] white = new byte[ 16 ];
+
+        for ( int n = 0; n < 16; n++ ) {
+            for ( int j = 0; j < 4; j++ ) {
+                if ( ( n & ( 1 << j ) ) != 0 ) {
+                    white[ n ] |= (byte) ( 1 << ( 6 - 2 * j ) );
+                }
+            }
+        }
+
+        int stride = ( width * 2 + 7 ) / 8;
+
+        for ( int y = 0; y < maze.getHeight(); y++ ) {
+
+            int row = y * words;
+
+            for ( int i = 0; i < stride; i++ ) {
+
+                int x = i << 2;
+
+                data[ y * stride + i ] = white[ (int) ( pixels[ row + ( x >>> 6 ) ] >>> ( x & 63 ) ) & 0xF ];
+
+            }
 
         }
 
-        try {
-            ImageIO.write( outputSolution, "png",  new File ( outFileName ) );
-        } catch ( IOException e ) {
-            System.err.println("Could not write to solution");
-            return;
+        return out;
+
+    }
+
+    /**
+     * Returns the length of the
+     * path in pixels
+     * @return path length
+     */
+    private static int pathLength () {
+
+        int length = 0;
+
+        for ( int i = 1; i < waypoints.size(); i++ ) {
+
+            length += Math.abs( waypoints.get( i )[0] - waypoints.get( i - 1 )[0] )
+                    + Math.abs( waypoints.get( i )[1] - waypoints.get( i - 1 )[1] );
+
         }
 
+        return length;
+
     }
 
 }
@@ -0,0 +1,201 @@
+package algorithms;
+
+import model.Maze;
+
+/**
+ * Class checks whether the open
+ * area of a Maze has no loops, so
+ * there is exactly one route between
+ * any two of its pixels. Rows are read
+ * one at a time and grouped into runs
+ * of open pixels. Runs that touch
+ * across two rows are joined in a
+ * union-find that only holds the runs
+ * of those two rows, so the check
+ * needs memory for one row, not the
+ * image. Two runs that touch in more
+ * than one pixel, or a join of runs
+ * already joined, close a loop.
+ */
+public class PerfectMaze {
+
+    /**
+     * Reads the Maze row by row,
+     * prints how many open areas it
+     * has and where the first loop is,
+     * and returns whether it has none.
+     * @param maze loaded Maze (the Node map is not needed)
+     * @return true if the open area has no loops
+     */
+    public static boolean check ( Maze maze ) {
+
+        double startTime = System.currentTimeMillis();
+
+        int height = maze.getHeight();
+        int words = maze.getWordsPerRow();
+        long[] pixels = maze.getPackedPixels();
+
+        // a row of w pixels has at most (w + 1) / 2 runs
+        int most = ( maze.getWidth() + 1 ) / 2 + 1;
+
+        int[] prevFirst = new int[ most ], prevLast = new int[ most ], prevLabel = new int[ most ];
+        int[] curFirst = new int[ most ], curLast = new int[ most ], curLabel = new int[ most ];
+
+        // the labels of the row above come first, then the runs of this row
+        int[] parent = new int[ 2 * most ];
+        int[] relabel = new int[ 2 * most ];
+
+        int prevCount = 0;
+        int labels = 0;
+
+        long runs = 0;
+        long joins = 0;
+
+        int loopX = -1, loopY = -1;
+
+        for ( int y = 0; y < height && loopY < 0; y++ ) {
+
+            int curCount = 0;
+            int ends = 0;
+
+            for ( int i = 0; i < words; i++ ) {
+
+                long starts = Reachability.runStarts( pixels, y * words, i, words );
+                long last = Reachability.runEnds( pixels, y * words, i, words );
+
+                while ( starts != 0 ) {
+                    curFirst[ curCount++ ] = ( i << 6 ) + Long.numberOfTrailingZeros( starts );
+                    starts &= starts - 1;
+                }
+
+                while ( last != 0 ) {
+                    curLast[ ends++ ] = ( i << 6 ) + Long.numberOfTrailingZeros( last );
+                    last &= last - 1;
+                }
+
+            }
+
+            for ( int i = 0; i < labels + curCount; i++ ) {
+                parent[ i ] = i;
+            }
+
+            int a = 0;
+            int b = 0;
+
+            // walks both rows' runs in order, joining runs that touch
+            while ( a < prevCount && b < curCount && loopY < 0 ) {
+
+                int overlap = Math.min( prevLast[ a ], curLast[ b ] ) - Math.max( prevFirst[ a ], curFirst[ b ] ) + 1;
+
+                if ( overlap > 1 ) {
+
+                    loopX = Math.max( prevFirst[ a ], curFirst[ b ] );
+                    loopY = y;
+
+                } else if ( overlap == 1 ) {
+
+                    int ra = find( parent, prevLabel[ a ] );
+                    int rb = find( parent, labels + b );
+
+                    if ( ra == rb ) {
+
+                        loopX = Math.max( prevFirst[ a ], curFirst[ b ] );
+                        loopY = y;
+
+                    } else {
+
+                        parent[ ra ] = rb;
+
+                        ++joins;
+
+                    }
+
+                }
+
+                if ( prevLast[ a ] < curLast[ b ] ) {
+                    ++a;
+                } else {
+                    ++b;
+                }
+
+            }
+
+            runs += curCount;
+
+            // gives the areas that reach this row labels from 0 for the next row
+            for ( int i = 0; i < labels + curCount; i++ ) {
+                relabel[ i ] = -1;
+            }
+
+            int next = 0;
+
+            for ( int i = 0; i < curCount; i++ ) {
+
+                int root = find( parent, labels + i );
+
+                if ( relabel[ root ] < 0 ) {
+                    relabel[ root ] = next++;
+                }
+
+                curLabel[ i ] = relabel[ root ];
+
+            }
+
+            // this row becomes the row above, its arrays are reused
+            int[] t = prevFirst;
+            prevFirst = curFirst;
+            curFirst = t;
+
+            t = prevLast;
+            prevLast = curLast;
+            curLast = t;
+
+            t = prevLabel;
+            prevLabel = curLabel;
+            curLabel = t;
+
+            prevCount = curCount;
+            labels = next;
+
+        }
+
+        boolean perfect = loopY < 0;
+
+        if ( perfect ) {
+
+            System.out.printf("Perfect maze: %d open areas, no loops.\n", runs - joins);
+
+        } else {
+
+            System.out.printf("Perfect maze: the open area has a loop through (%d, %d).\n", loopX, loopY);
+
+        }
+
+        System.out.printf("Checked for loops: Finished in %.5f seconds.\n", (System.currentTimeMillis() - startTime) / 1000.0);
+
+        return perfect;
+
+    }
+
+    /**
+     * Returns the root of a label,
+     * halving the path on the way
+     * @param parent parent of each label
+     * @param r label
+     * @return root label
+     */
+    private static int find ( int[] parent, int r ) {
+
+        while ( parent[ r ] != r ) {
+
+            parent[ r ] = parent[ parent[ r ] ];
+
+            r = parent[ r ];
+
+        }
+
+        return r;
+
+    }
+
+}
@@ -0,0 +1,253 @@
+package algorithms;
+
+import model.Maze;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Class builds the Node map on a
+ * background thread while Dial's
+ * search runs on the finished rows.
+ * The builder publishes the count of
+ * finished rows every few rows and
+ * never waits for the search. The
+ * search only
+ * waits when the Node it is about to
+ * expand could still get a link from
+ * a row that is not finished, so the
+ * time to a path is close to the
+ * longer of the build and the search
+ * instead of their sum. If the search
+ * returns early, the builder stops at
+ * its next band.
+ */
+public class Pipelined extends Dial {
+
+    /** holds the rows between hand overs */
+    private static final int BAND_ROWS = 32;
+
+    /** holds the rows the builder has finished, only written by the builder */
+    private volatile int rowsDone;
+
+    /** true once the search no longer needs the builder */
+    private volatile boolean stopped;
+
+    /** holds the error that stopped the builder */
+    private volatile RuntimeException failure;
+
+    /** holds the lock the search waits on for more rows */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** signalled when rows are finished or the builder fails */
+    private final Condition moreRows = lock.newCondition();
+
+    /** holds the Maze being built and searched */
+    private Maze maze;
+
+    /**
+     * Called by MazeSolver. Loads the
+     * Maze and runs the pipelined
+     * build and search.
+     * @param inputFileName input maze
+     * @param outputFileName output traced maze
+     * @param showPlot boolean to show traced maze
+     */
+    public static void solve ( String inputFileName, String outputFileName, boolean showPlot ) {
+
+        EngineRunner.solve( new Pipelined(), inputFileName, outputFileName, showPlot );
+
+    }
+
+    /**
+     * Returns the name of the algorithm
+     * @return name
+     */
+    @Override
+    public String getName () {
+        return "pipelined";
+    }
+
+    /**
+     * Returns false, the Node map
+     * is built during the search
+     * @return false
+     */
+    @Override
+    public boolean needsNodeMap () {
+        return false;
+    }
+
+    /**
+     * Starts building the Node map and
+     * searches it as rows are finished
+     * @param imageMaze Maze loaded without its Node map
+     * @param budget time the search may take
+     * @return how the search ended, with the path
+     */
+    @Override
+    public SolveResult search ( Maze imageMaze, SolveBudget budget ) {
+
+        maze = imageMaze;
+
+        rowsDone = 0;
+        stopped = false;
+        failure = null;
+
+        Thread builder = new Thread( () -> {
+
+            double startMazeTime = System.currentTimeMillis();
+
+            try {
+
+                maze.getNodeMap( BAND_ROWS, this::publish );
+
+                System.out.printf("Created node map (background): Finished in %.5f seconds.\n", (System.currentTimeMillis() - startMazeTime) / 1000.0);
+
+            } catch ( EngineRunner.BuildStopped e ) {
+
+                System.out.printf("Stopped node map (background) at row %d.\n", rowsDone);
+
+            } catch ( RuntimeException e ) {
+
+                failure = e;
+
+                this.signal();
+
+            }
+
+        }, "node-map-builder" );
+
+        builder.setDaemon( true );
+        builder.start();
+
+        try {
+
+            // the start Node is made before the first row is handed over
+            awaitRows( 1 );
+
+            if ( maze.getStart() == null ) {
+                return SolveResult.noPath( 0 );
+            }
+
+            SolveResult result = this.search( maze, maze.getStart(), 1024, budget );
+
+            // a search out of time returns at once, and the finally block stops the builder
+            if ( result.getStatus() != SolveResult.Status.SOLVED && result.getStatus() != SolveResult.Status.NO_PATH ) {
+                return result;
+            }
+
+            // lets the builder finish so the whole Node map is there for the trace
+            awaitRows( maze.getHeight() );
+
+            return maze.getFinish() == null ? SolveResult.noPath( result.getSettled() ) : result;
+
+        } finally {
+
+            stopped = true;
+
+        }
+
+    }
+
+    /**
+     * Waits until every link of a Node
+     * is set. Links to the west, north,
+     * and east are set once its own row
+     * is finished. The link to the south
+     * is set by the first Node below it,
+     * which is at the latest where the
+     * open column below it ends.
+     * @param node Node about to be expanded
+     */
+    @Override
+    protected void ready ( Maze.Node node ) {
+
+        if ( rowsDone == maze.getHeight() ) {
+            return;
+        }
+
+        int x = node.getXPos();
+        int last = node.getYPos();
+
+        while ( last + 1 < maze.getHeight() && maze.isOpen( x, last + 1 ) ) {
+            ++last;
+        }
+
+        awaitRows( last + 1 );
+
+    }
+
+    /**
+     * Waits until the builder has
+     * finished at least the given
+     * number of rows
+     * @param rows rows needed
+     */
+    private void awaitRows ( int rows ) {
+
+        // most Nodes are in finished rows, so the lock is only taken to wait
+        if ( rowsDone >= rows ) {
+            return;
+        }
+
+        lock.lock();
+
+        try {
+
+            while ( rowsDone < rows && failure == null ) {
+                moreRows.await();
+            }
+
+        } catch ( InterruptedException e ) {
+
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException( "Interrupted while waiting for the node map", e );
+
+        } finally {
+            lock.unlock();
+        }
+
+        if ( rowsDone < rows ) {
+            throw new IllegalStateException( "Building the node map failed", failure );
+        }
+
+    }
+
+    /**
+     * Publishes a finished row count
+     * without waiting for the search,
+     * or stops the build once the
+     * search no longer needs it
+     * @param rows finished rows
+     */
+    private void publish ( int rows ) {
+
+        if ( stopped ) {
+            throw new EngineRunner.BuildStopped();
+        }
+
+        rowsDone = rows;
+
+        this.signal();
+
+    }
+
+    /**
+     * Wakes the search if it is
+     * waiting for rows
+     */
+    private void signal () {
+
+        lock.lock();
+
+        try {
+            moreRows.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+    }
+
+}
@@ -0,0 +1,289 @@
+package algorithms;
+
+import model.Maze;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Class runs several search algorithms
+ * on one Maze at the same time and
+ * takes the first answer. The Node map
+ * is built once and only read by the
+ * searches, which keep their state in
+ * their own arrays. The lazy and flood
+ * searches need no Node map, so they
+ * start while the map is still being
+ * built. Once one search finds the
+ * path, or finds there is none, the
+ * others are cancelled through their
+ * shared SolveBudget. Only algorithms
+ * that find the shortest path race.
+ */
+public class Race {
+
+    /** holds the file each winner is added to, null for none */
+    private static String logFileName = null;
+
+    /**
+     * Sets the file each winner is
+     * added to as a line of
+     * input,width,height,winner,status,seconds
+     * @param fileName log file, null for none
+     */
+    public static void setLog ( String fileName ) {
+        logFileName = fileName;
+    }
+
+    /**
+     * Called by MazeSolver. Loads the
+     * Maze, races the algorithms, and
+     * traces the winner's path.
+     * @param inputFileName input maze
+     * @param outputFileName output traced maze
+     * @param showPlot boolean to show traced maze
+     */
+    public static void solve ( String inputFileName, String outputFileName, boolean showPlot ) {
+
+        Maze maze = EngineRunner.load( inputFileName );
+
+        if ( maze == null ) {
+            return;
+        }
+
+        // Dijkstra leaves its state in the Nodes and its path is not always the shortest
+        Engine[] engines = {
+                new Dial(),
+                new AStar( false ),
+                new AStar( true ),
+                new DeltaStepping(),
+                new FloodFill()
+        };
+
+        SolveResult result = race( engines, maze, EngineRunner.budget(), inputFileName );
+
+        EngineRunner.report( result, maze, inputFileName, outputFileName, showPlot );
+
+    }
+
+    /**
+     * Runs the algorithms at the same
+     * time on one thread each and returns
+     * the first answer. If every search
+     * runs out of time, returns the
+     * partial path that ends closest
+     * to the finish.
+     * @param engines algorithms, each with its own state
+     * @param maze Maze loaded without its Node map
+     * @param budget time the race may take, cancelled when it is won
+     * @param inputFileName input maze, for the log
+     * @return how the winning search ended
+     */
+    public static SolveResult race ( Engine[] engines, Maze maze, SolveBudget budget, String inputFileName ) {
+
+        double startTime = System.currentTimeMillis();
+
+        ExecutorService pool = Executors.newFixedThreadPool( engines.length + 1, r -> {
+
+            Thread t = new Thread( r, "race" );
+
+            // a loser still winding down does not keep the program running
+            t.setDaemon( true );
+
+            return t;
+
+        } );
+
+        ExecutorCompletionService<SolveResult> finished = new ExecutorCompletionService<>( pool );
+
+        HashMap<Future<SolveResult>, Engine> running = new HashMap<>();
+
+        // stops part way once the race is won or out of time
+        CompletableFuture<Boolean> nodeMap = CompletableFuture.supplyAsync( () -> EngineRunner.buildNodeMap( maze, budget ), pool );
+
+        for ( Engine engine : engines ) {
+
+            running.put( finished.submit( () -> {
+
+                if ( engine.needsNodeMap() ) {
+
+                    // the flood in the race already gives a partial path without the Node map
+                    if ( !nodeMap.join() ) {
+                        return SolveResult.stopped( budget, null, 0 );
+                    }
+
+                    if ( maze.getStart() == null || maze.getFinish() == null ) {
+                        return SolveResult.noPath( 0 );
+                    }
+
+                    // the race may be over by the time the Node map is built
+                    if ( budget.exceeded() ) {
+                        return SolveResult.stopped( budget, null, 0 );
+                    }
+
+                }
+
+                return engine.search( maze, budget );
+
+            } ), engine );
+
+        }
+
+        Engine winner = null;
+        SolveResult result = null;
+
+        try {
+
+            for ( int i = 0; i < engines.length && ( result == null || !isAnswer( result ) ); i++ ) {
+
+                Future<SolveResult> done = finished.take();
+
+                Engine engine = running.get( done );
+
+                SolveResult r;
+
+                try {
+
+                    r = done.get();
+
+                } catch ( ExecutionException e ) {
+
+                    System.out.printf("Race: %s failed: %s\n", engine.getName(), e.getCause());
+
+                    continue;
+
+                }
+
+                System.out.printf("Race: %s finished at %.5f seconds (%s, settled %d nodes).\n",
+                        engine.getName(), (System.currentTimeMillis() - startTime) / 1000.0, r.getStatus(), r.getSettled());
+
+                if ( result == null || isAnswer( r ) || closer( r, result, maze ) ) {
+                    winner = engine;
+                    result = r;
+                }
+
+            }
+
+        } catch ( InterruptedException e ) {
+
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException( "Interrupted while racing", e );
+
+        } finally {
+
+            // the other searches stop within SolveBudget.CHECK_INTERVAL Nodes
+            budget.cancel();
+
+            pool.shutdown();
+
+        }
+
+        if ( result == null ) {
+            throw new IllegalStateException( "Every search failed" );
+        }
+
+        double seconds = (System.currentTimeMillis() - startTime) / 1000.0;
+
+        // a search out of time has not won, even with the closest partial path
+        String name = isAnswer( result ) ? winner.getName() : "none";
+
+        if ( isAnswer( result ) ) {
+
+            System.out.printf("Race: %s won (%s).\n", name, result.getStatus());
+
+        } else {
+
+            System.out.printf("Race: no search found an answer (%s), the closest partial path is from %s.\n",
+                    result.getStatus(), winner.getName());
+
+        }
+
+        log( inputFileName, maze, name, result, seconds );
+
+        System.out.printf("Raced engines: Finished in %.5f seconds.\n", seconds);
+
+        return result;
+
+    }
+
+    /**
+     * Returns true if a search found
+     * the path or that there is none
+     * @param result how the search ended
+     * @return boolean
+     */
+    private static boolean isAnswer ( SolveResult result ) {
+        return result.isSolved() || result.getStatus() == SolveResult.Status.NO_PATH;
+    }
+
+    /**
+     * Returns true if a partial path
+     * ends closer to the finish than
+     * another one
+     * @param a how one search ended
+     * @param b how another search ended
+     * @param maze searched Maze
+     * @return boolean
+     */
+    private static boolean closer ( SolveResult a, SolveResult b, Maze maze ) {
+
+        if ( !a.isPartial() ) {
+            return false;
+        }
+
+        return !b.isPartial() || left( a, maze ) < left( b, maze );
+
+    }
+
+    /**
+     * Returns the row and column distance
+     * from the end of a partial path
+     * to the finish
+     * @param result partial result
+     * @param maze searched Maze
+     * @return distance
+     */
+    private static int left ( SolveResult result, Maze maze ) {
+
+        int[] end = result.getPath().get( result.getPath().size() - 1 );
+
+        return Math.abs( maze.getFinishX() - end[0] ) + ( maze.getHeight() - 1 - end[1] );
+
+    }
+
+    /**
+     * Adds the winner to the log file
+     * @param inputFileName input maze
+     * @param maze searched Maze
+     * @param winner name of the winning algorithm, "none" if no search found an answer
+     * @param result how it ended
+     * @param seconds time of the race
+     */
+    private static void log ( String inputFileName, Maze maze, String winner, SolveResult result, double seconds ) {
+
+        if ( logFileName == null ) {
+            return;
+        }
+
+        try ( Writer w = new BufferedWriter( new FileWriter( logFileName, true ) ) ) {
+
+            w.write( String.format( "%s,%d,%d,%s,%s,%.5f\n", inputFileName, maze.getWidth(), maze.getHeight(),
+                    winner, result.getStatus(), seconds ) );
+
+        } catch ( IOException e ) {
+            System.err.println("Could not write to race log");
+        }
+
+    }
+
+}
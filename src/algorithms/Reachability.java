@@ -0,0 +1,329 @@
+package algorithms;
+
+import model.Maze;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Class checks whether the start
+ * of a Maze is connected to its
+ * finish before any Node map is
+ * built. Open pixels are grouped
+ * into horizontal runs, and runs
+ * that touch across rows are joined
+ * with a lock-free union-find. Row
+ * bands are joined in parallel.
+ */
+public class Reachability {
+
+    /** true if solvers run the check before building the Node map */
+    private static boolean enabled = false;
+
+    /** holds the number of row bands per available core */
+    private static final int BANDS_PER_CORE = 4;
+
+    /**
+     * Sets whether solvers run
+     * the check first
+     * @param check boolean
+     */
+    public static void setEnabled ( boolean check ) {
+        enabled = check;
+    }
+
+    /**
+     * Returns true if solvers
+     * run the check first
+     * @return boolean
+     */
+    public static boolean isEnabled () {
+        return enabled;
+    }
+
+    /**
+     * Finds the connected open areas
+     * of the Maze, prints how many
+     * there are and their sizes, and
+     * returns whether the start and
+     * finish are in the same one.
+     * @param maze loaded Maze (the Node map is not needed)
+     * @return true if the finish can be reached
+     */
+    public static boolean check ( Maze maze ) {
+
+        double startTime = System.currentTimeMillis();
+
+        int height = maze.getHeight();
+        int words = maze.getWordsPerRow();
+        long[] pixels = maze.getPackedPixels();
+
+        int startX = maze.getStartX();
+        int finishX = maze.getFinishX();
+
+        if ( startX < 0 || finishX < 0 ) {
+
+            System.out.println("Reachability: the maze has no " + ( startX < 0 ? "start" : "finish" ) + " opening.");
+
+            return false;
+
+        }
+
+        // counts the runs of each row, rowStart[y + 1] holds the count of row y
+        int[] rowStart = new int[ height + 1 ];
+
+        IntStream.range( 0, height ).parallel().forEach( y -> {
+
+            int count = 0;
+
+            for ( int i = 0; i < words; i++ ) {
+                count += Long.bitCount( runStarts( pixels, y * words, i, words ) );
+            }
+
+            rowStart[ y + 1 ] = count;
+
+        } );
+
+        // turns the counts into the index of each row's first run
+        for ( int y = 0; y < height; y++ ) {
+            rowStart[ y + 1 ] += rowStart[ y ];
+        }
+
+        int runs = rowStart[ height ];
+
+        // first and last x of every run
+        int[] runFirst = new int[ runs ];
+        int[] runLast = new int[ runs ];
+
+        IntStream.range( 0, height ).parallel().forEach( y -> {
+
+            int r = rowStart[ y ];
+            int f = r;
+
+            for ( int i = 0; i < words; i++ ) {
+
+                long starts = runStarts( pixels, y * words, i, words );
+                long ends = runEnds( pixels, y * words, i, words );
+
+                while ( starts != 0 ) {
+                    runFirst[ r++ ] = ( i << 6 ) + Long.numberOfTrailingZeros( starts );
+                    starts &= starts - 1;
+                }
+
+                while ( ends != 0 ) {
+                    runLast[ f++ ] = ( i << 6 ) + Long.numberOfTrailingZeros( ends );
+                    ends &= ends - 1;
+                }
+
+            }
+
+        } );
+
+        AtomicIntegerArray parent = new AtomicIntegerArray( runs );
+
+        IntStream.range( 0, runs ).parallel().forEach( r -> parent.set( r, r ) );
+
+        // each band joins its rows to the row above, including the last row of the band above
+        int bands = Math.max( 1, Math.min( height, Runtime.getRuntime().availableProcessors() * BANDS_PER_CORE ) );
+
+        IntStream.range( 0, bands ).parallel().forEach( band -> {
+
+            int first = Math.max( 1, (int) ( (long) height * band / bands ) );
+            int last = (int) ( (long) height * ( band + 1 ) / bands );
+
+            for ( int y = first; y < last; y++ ) {
+
+                int a = rowStart[ y - 1 ];
+                int b = rowStart[ y ];
+
+                // walks both rows' runs in order, joining runs that overlap
+                while ( a < rowStart[ y ] && b < rowStart[ y + 1 ] ) {
+
+                    if ( runFirst[ a ] <= runLast[ b ] && runFirst[ b ] <= runLast[ a ] ) {
+                        union( parent, a, b );
+                    }
+
+                    if ( runLast[ a ] < runLast[ b ] ) {
+                        ++a;
+                    } else {
+                        ++b;
+                    }
+
+                }
+
+            }
+
+        } );
+
+        // adds up the open pixels of every area at its root run
+        long[] sizes = new long[ runs ];
+        int components = 0;
+
+        for ( int r = 0; r < runs; r++ ) {
+
+            int root = find( parent, r );
+
+            if ( root == r ) {
+                ++components;
+            }
+
+            sizes[ root ] += runLast[ r ] - runFirst[ r ] + 1;
+
+        }
+
+        long largest = 0;
+
+        for ( long size : sizes ) {
+            largest = Math.max( largest, size );
+        }
+
+        int startRoot = find( parent, runAt( runFirst, runLast, rowStart[ 0 ], rowStart[ 1 ], startX ) );
+        int finishRoot = find( parent, runAt( runFirst, runLast, rowStart[ height - 1 ], rowStart[ height ], finishX ) );
+
+        boolean connected = startRoot == finishRoot;
+
+        System.out.printf("Reachability: %d open areas, largest %d pixels, start area %d pixels, finish area %d pixels, %s.\n",
+                components, largest, sizes[ startRoot ], sizes[ finishRoot ], connected ? "connected" : "not connected");
+
+        System.out.printf("Checked reachability: Finished in %.5f seconds.\n", (System.currentTimeMillis() - startTime) / 1000.0);
+
+        return connected;
+
+    }
+
+    /**
+     * Returns the bits of a word where
+     * an open run starts (the pixel to
+     * the left is a wall or off the row)
+     * @param pixels packed pixels
+     * @param row index of the row's first word
+     * @param i word in the row
+     * @param words words per row
+     * @return run start bits
+     */
+    static long runStarts ( long[] pixels, int row, int i, int words ) {
+
+        long cur = pixels[ row + i ];
+        long prv = cur << 1;
+
+        if ( i > 0 ) {
+            prv |= pixels[ row + i - 1 ] >>> 63;
+        }
+
+        return cur & ~prv;
+
+    }
+
+    /**
+     * Returns the bits of a word where
+     * an open run ends (the pixel to
+     * the right is a wall or off the row)
+     * @param pixels packed pixels
+     * @param row index of the row's first word
+     * @param i word in the row
+     * @param words words per row
+     * @return run end bits
+     */
+    static long runEnds ( long[] pixels, int row, int i, int words ) {
+
+        long cur = pixels[ row + i ];
+        long nxt = cur >>> 1;
+
+        if ( i + 1 < words ) {
+            nxt |= pixels[ row + i + 1 ] << 63;
+        }
+
+        return cur & ~nxt;
+
+    }
+
+    /**
+     * Returns the run of a row
+     * holding the given x position
+     * @param runFirst first x of each run
+     * @param runLast last x of each run
+     * @param from first run of the row
+     * @param to first run of the next row
+     * @param x x position
+     * @return run index
+     */
+    private static int runAt ( int[] runFirst, int[] runLast, int from, int to, int x ) {
+
+        for ( int r = from; r < to; r++ ) {
+            if ( runFirst[ r ] <= x && x <= runLast[ r ] ) {
+                return r;
+            }
+        }
+
+        throw new IllegalStateException( "No open run at x = " + x );
+
+    }
+
+    /**
+     * Returns the root of a run,
+     * halving the path on the way.
+     * A parent is only replaced by
+     * its own parent, so concurrent
+     * finds and unions stay correct.
+     * @param parent parent of each run
+     * @param r run
+     * @return root run
+     */
+    private static int find ( AtomicIntegerArray parent, int r ) {
+
+        while ( true ) {
+
+            int p = parent.get( r );
+
+            if ( p == r ) {
+                return r;
+            }
+
+            int gp = parent.get( p );
+
+            if ( p != gp ) {
+                parent.compareAndSet( r, p, gp );
+            }
+
+            r = gp;
+
+        }
+
+    }
+
+    /**
+     * Joins the areas of two runs.
+     * The larger root is linked to the
+     * smaller one, and only while it is
+     * still a root, so racing unions
+     * retry instead of making a cycle.
+     * @param parent parent of each run
+     * @param a run
+     * @param b run
+     */
+    private static void union ( AtomicIntegerArray parent, int a, int b ) {
+
+        while ( true ) {
+
+            a = find( parent, a );
+            b = find( parent, b );
+
+            if ( a == b ) {
+                return;
+            }
+
+            if ( a < b ) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+
+            if ( parent.compareAndSet( a, a, b ) ) {
+                return;
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+package algorithms;
+
+/**
+ * Class holds the time a search may
+ * take and a flag to cancel it from
+ * another thread. Searches ask it
+ * once per Node they settle, but the
+ * clock and the flag are only read
+ * every CHECK_INTERVAL Nodes, so the
+ * check costs next to nothing.
+ */
+public class SolveBudget {
+
+    /** holds the settled Nodes between reads of the clock, a power of two */
+    public static final int CHECK_INTERVAL = 1024;
+
+    /** holds the System.nanoTime() the search must stop by, Long.MAX_VALUE for none */
+    private final long deadline;
+
+    /** true once the search is cancelled */
+    private volatile boolean cancelled;
+
+    /**
+     * Constructor for the SolveBudget
+     * @param deadline System.nanoTime() to stop by
+     */
+    private SolveBudget ( long deadline ) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns a budget with no deadline
+     * that can still be cancelled
+     * @return budget
+     */
+    public static SolveBudget unlimited () {
+        return new SolveBudget( Long.MAX_VALUE );
+    }
+
+    /**
+     * Returns a budget that runs out
+     * the given time from now
+     * @param millis time in milliseconds, 0 for no deadline
+     * @return budget
+     */
+    public static SolveBudget timeout ( long millis ) {
+
+        if ( millis < 0 ) {
+
+            throw new IllegalArgumentException( "Timeout must not be negative: " + millis );
+
+        }
+
+        if ( millis == 0 ) {
+            return unlimited();
+        }
+
+        return new SolveBudget( System.nanoTime() + millis * 1_000_000L );
+
+    }
+
+    /**
+     * Cancels the search. It stops
+     * the next time it reads the budget.
+     */
+    public void cancel () {
+        this.cancelled = true;
+    }
+
+    /**
+     * Returns true if the search must
+     * stop. Only reads the clock and
+     * the flag every CHECK_INTERVAL
+     * settled Nodes.
+     * @param settled Nodes settled so far
+     * @return boolean
+     */
+    public boolean exceeded ( long settled ) {
+
+        if ( ( settled & ( CHECK_INTERVAL - 1 ) ) != 0 ) {
+            return false;
+        }
+
+        return this.exceeded();
+
+    }
+
+    /**
+     * Returns true if the search must
+     * stop, reading the clock and the
+     * flag now
+     * @return boolean
+     */
+    public boolean exceeded () {
+        return this.cancelled || ( this.deadline != Long.MAX_VALUE && System.nanoTime() - this.deadline >= 0 );
+    }
+
+    /**
+     * Returns why a search that
+     * stopped early stopped
+     * @return CANCELLED or TIMED_OUT
+     */
+    public SolveResult.Status reason () {
+        return this.cancelled ? SolveResult.Status.CANCELLED : SolveResult.Status.TIMED_OUT;
+    }
+
+}
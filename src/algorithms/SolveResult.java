@@ -0,0 +1,167 @@
+package algorithms;
+
+import model.Maze;
+
+import java.util.ArrayList;
+
+/**
+ * Class holds the outcome of a search:
+ * whether it found the path, found
+ * that there is none, or ran out of
+ * its SolveBudget, how many Nodes it
+ * settled, and the path. A search that
+ * stopped early returns the route to
+ * the settled Node closest to the
+ * finish as a partial path.
+ */
+public class SolveResult {
+
+    /**
+     * Enum for how a search ended
+     */
+    public enum Status {
+        SOLVED, NO_PATH, TIMED_OUT, CANCELLED
+    }
+
+    /** holds how the search ended */
+    private final Status status;
+
+    /** holds the points of the path or partial path, null if there is none */
+    private final ArrayList<int[]> path;
+
+    /** holds the number of Nodes settled */
+    private final long settled;
+
+    /** holds the number of Nodes made during the search, 0 if the Node map was built before */
+    private final long made;
+
+    /**
+     * Constructor for the SolveResult
+     * @param status how the search ended
+     * @param path points of the path, or null
+     * @param settled Nodes settled
+     * @param made Nodes made during the search
+     */
+    private SolveResult ( Status status, ArrayList<int[]> path, long settled, long made ) {
+
+        this.status = status;
+        this.path = path;
+        this.settled = settled;
+        this.made = made;
+
+    }
+
+    /**
+     * Returns the result of a
+     * search that found the path
+     * @param path points of the path
+     * @param settled Nodes settled
+     * @return result
+     */
+    public static SolveResult solved ( ArrayList<int[]> path, long settled ) {
+        return new SolveResult( Status.SOLVED, path, settled, 0 );
+    }
+
+    /**
+     * Returns the result of a search
+     * that found the finish cannot
+     * be reached
+     * @param settled Nodes settled
+     * @return result
+     */
+    public static SolveResult noPath ( long settled ) {
+        return new SolveResult( Status.NO_PATH, null, settled, 0 );
+    }
+
+    /**
+     * Returns the result of a search
+     * that ran out of its budget
+     * @param budget budget that ran out
+     * @param partial points of the best partial path, or null
+     * @param settled Nodes settled
+     * @return result
+     */
+    public static SolveResult stopped ( SolveBudget budget, ArrayList<int[]> partial, long settled ) {
+        return new SolveResult( budget.reason(), partial, settled, 0 );
+    }
+
+    /**
+     * Returns this result with the
+     * number of Nodes the search made
+     * as it went, for searches that
+     * build their own Nodes
+     * @param nodes Nodes made
+     * @return result
+     */
+    public SolveResult withMade ( long nodes ) {
+        return new SolveResult( this.status, this.path, this.settled, nodes );
+    }
+
+    /**
+     * Returns the row and column
+     * distance from a Node to the
+     * finish opening, used to pick
+     * the best partial path
+     * @param maze Maze being searched
+     * @param finishX x position of the finish, from Maze.getFinishX()
+     * @param n Node
+     * @return distance
+     */
+    public static int toFinish ( Maze maze, int finishX, Maze.Node n ) {
+        return Math.abs( finishX - n.getXPos() ) + ( maze.getHeight() - 1 - n.getYPos() );
+    }
+
+    /**
+     * Returns how the search ended
+     * @return status
+     */
+    public Status getStatus () {
+        return this.status;
+    }
+
+    /**
+     * Returns the points of the path,
+     * the partial path, or null
+     * @return path
+     */
+    public ArrayList<int[]> getPath () {
+        return this.path;
+    }
+
+    /**
+     * Returns the number of
+     * Nodes settled
+     * @return Nodes settled
+     */
+    public long getSettled () {
+        return this.settled;
+    }
+
+    /**
+     * Returns the number of Nodes
+     * made during the search
+     * @return Nodes made, 0 if the Node map was built before
+     */
+    public long getMade () {
+        return this.made;
+    }
+
+    /**
+     * Returns true if the path
+     * goes from the start to the finish
+     * @return boolean
+     */
+    public boolean isSolved () {
+        return this.status == Status.SOLVED;
+    }
+
+    /**
+     * Returns true if the search
+     * stopped early with a partial path
+     * @return boolean
+     */
+    public boolean isPartial () {
+        return !this.isSolved() && this.path != null;
+    }
+
+}
@@ -0,0 +1,241 @@
+package algorithms;
+
+import model.Maze;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Class walks a Maze pixel by pixel
+ * with one hand on the wall, starting
+ * at the start opening, until it steps
+ * onto the bottom row. Both openings
+ * are in the outer wall, so the walk
+ * reaches the finish if it can be
+ * reached and comes back to the start
+ * if not. Every step is kept as two
+ * bits on a stack, and a step straight
+ * back pops the one before it, so
+ * dead ends leave nothing behind. In a
+ * maze with no loops (see PerfectMaze)
+ * what is left is the only route, so
+ * it is the shortest. No Node map is
+ * built and the stack only grows with
+ * the route.
+ */
+public class Walker implements Engine {
+
+    /** holds the x step of each direction: north, east, south, west */
+    private static final int[] DX = { 0, 1, 0, -1 };
+
+    /** holds the y step of each direction: north, east, south, west */
+    private static final int[] DY = { -1, 0, 1, 0 };
+
+    /** holds the steps of the route, 32 to a long */
+    private long[] steps = new long[ 64 ];
+
+    /** holds the number of steps on the stack */
+    private int size;
+
+    /** true if the Maze is already known to have no loops */
+    private final boolean checked;
+
+    /**
+     * Constructor for the Walker,
+     * which checks the Maze for loops
+     */
+    public Walker () {
+        this( false );
+    }
+
+    /**
+     * Constructor for the Walker
+     * @param checked true if PerfectMaze.check already passed
+     */
+    Walker ( boolean checked ) {
+        this.checked = checked;
+    }
+
+    /**
+     * Called by MazeSolver. Loads the
+     * Maze, walks it, and traces
+     * the route.
+     * @param inputFileName input maze
+     * @param outputFileName output traced maze
+     * @param showPlot boolean to show traced maze
+     */
+    public static void solve ( String inputFileName, String outputFileName, boolean showPlot ) {
+
+        EngineRunner.solve( new Walker(), inputFileName, outputFileName, showPlot );
+
+    }
+
+    /**
+     * Returns the name of the algorithm
+     * @return name
+     */
+    @Override
+    public String getName () {
+        return "walker";
+    }
+
+    /**
+     * Returns false, the walk
+     * reads the pixels directly
+     * @return false
+     */
+    @Override
+    public boolean needsNodeMap () {
+        return false;
+    }
+
+    /**
+     * Checks the Maze for loops and
+     * walks it with the left hand on
+     * the wall
+     * @param maze Maze loaded without its Node map
+     * @param budget time the walk may take
+     * @return how the walk ended, with the route
+     */
+    @Override
+    public SolveResult search ( Maze maze, SolveBudget budget ) {
+
+        int startX = maze.getStartX();
+
+        if ( startX < 0 || maze.getFinishX() < 0 ) {
+            return SolveResult.noPath( 0 );
+        }
+
+        if ( !checked && !PerfectMaze.check( maze ) ) {
+            System.out.println("Walker: the maze has loops, so the route is not always the shortest.");
+        }
+
+        int width = maze.getWidth();
+        int height = maze.getHeight();
+
+        size = 0;
+
+        int x = startX;
+        int y = 0;
+
+        // enters heading south
+        int d = 2;
+
+        long moves = 0;
+
+        // the walk has no more than four states per pixel, so it has gone around if it passes that
+        long limit = 4L * width * height;
+
+        while ( y != height - 1 ) {
+
+            if ( budget.exceeded( moves ) ) {
+                return SolveResult.stopped( budget, route( startX ), moves );
+            }
+
+            // back at the start, the finish cannot be reached
+            if ( ( moves > 0 && y == 0 && x == startX ) || moves > limit ) {
+                return SolveResult.noPath( moves );
+            }
+
+            int next = -1;
+
+            // tries left, straight, right, then back
+            for ( int turn = 3; turn < 7; turn++ ) {
+
+                int c = ( d + turn ) % 4;
+
+                int nx = x + DX[ c ];
+                int ny = y + DY[ c ];
+
+                if ( nx >= 0 && ny >= 0 && nx < width && ny < height && maze.isOpen( nx, ny ) ) {
+                    next = c;
+                    break;
+                }
+
+            }
+
+            // a start opening with no open pixel next to it
+            if ( next < 0 ) {
+                return SolveResult.noPath( moves );
+            }
+
+            x += DX[ next ];
+            y += DY[ next ];
+            d = next;
+
+            ++moves;
+
+            if ( size > 0 && get( size - 1 ) == ( next + 2 ) % 4 ) {
+                --size;
+            } else {
+                push( next );
+            }
+
+        }
+
+        return SolveResult.solved( route( startX ), moves );
+
+    }
+
+    /**
+     * Returns the corners of the route
+     * on the stack, from the start
+     * @param startX x position of the start
+     * @return points of the route
+     */
+    private ArrayList<int[]> route ( int startX ) {
+
+        ArrayList<int[]> path = new ArrayList<>();
+
+        int x = startX;
+        int y = 0;
+
+        path.add( new int[] { x, y } );
+
+        for ( int i = 0; i < size; i++ ) {
+
+            if ( i > 0 && get( i ) != get( i - 1 ) ) {
+                path.add( new int[] { x, y } );
+            }
+
+            x += DX[ get( i ) ];
+            y += DY[ get( i ) ];
+
+        }
+
+        if ( size > 0 ) {
+            path.add( new int[] { x, y } );
+        }
+
+        return path;
+
+    }
+
+    /**
+     * Returns a step on the stack
+     * @param i index of the step
+     * @return direction
+     */
+    private int get ( int i ) {
+        return (int) ( steps[ i >>> 5 ] >>> ( ( i & 31 ) << 1 ) ) & 3;
+    }
+
+    /**
+     * Puts a step on the stack
+     * @param direction direction
+     */
+    private void push ( int direction ) {
+
+        if ( ( size >>> 5 ) == steps.length ) {
+            steps = Arrays.copyOf( steps, steps.length * 2 );
+        }
+
+        int shift = ( size & 31 ) << 1;
+
+        steps[ size >>> 5 ] = ( steps[ size >>> 5 ] & ~( 3L << shift ) ) | ( (long) direction << shift );
+
+        ++size;
+
+    }
+
+}
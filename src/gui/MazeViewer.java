@@ -1,57 +1,618 @@
 package gui;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import javafx.scene.Scene;
-import javafx.scene.layout.StackPane;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
- * GUI Viewer for a
- * PNG image
+ * Zoomable and pannable GUI viewer
+ * for a maze PNG. The image is read
+ * once into one byte per pixel (open,
+ * trace), with every zoomed out level
+ * reduced from it ahead of time. Tiles
+ * are built from those levels on
+ * background threads and uploaded as
+ * WritableImages a few milliseconds
+ * per frame, then kept in an LRU
+ * cache. The solved path is drawn over
+ * the tiles as a line instead of image
+ * pixels. Scroll to zoom, drag to pan,
+ * press 0 to fit the window.
  */
 public class MazeViewer extends Application {
 
-    /** holds the loaded image */
-    private ImageView loadImage;
+    /** side length of a tile in tile pixels */
+    private static final int TILE_SIZE = 256;
+
+    /** holds how many screens of tiles the cache keeps */
+    private static final int CACHE_SCREENS = 2;
+
+    /** holds the time in nanoseconds a frame may spend uploading tiles, a quarter of a 60 fps frame */
+    private static final long UPLOAD_NANOS = 4_000_000;
+
+    /** holds the pixel bit for open space */
+    private static final int OPEN = 1;
+
+    /** holds the pixel bit for the traced path */
+    private static final int TRACE = 2;
+
+    /** holds the color of each pixel byte, the trace wins over open space */
+    private static final int[] COLORS = { 0xFF000000, 0xFFFFFFFF, 0xFFFF0000, 0xFFFF0000 };
+
+    /** holds the largest zoom (screen pixels per image pixel) */
+    private static final double MAX_SCALE = 32.0;
+
+    /** holds the largest initial window size */
+    private static final double MAX_WINDOW = 900.0;
 
     /** holds the output traced maze */
     private static String fileName;
 
+    /** holds the waypoints of the solved path, or null */
+    private static ArrayList<int[]> path;
+
+    /** holds the width and height of the image */
+    private int imageWidth, imageHeight;
+
+    /** holds the pixel bytes of each level, each level halves the one before */
+    private byte[][] levels;
+
+    /** holds the width of each level */
+    private int[] levelWidths;
+
+    /** holds the threads tiles are built on */
+    private ExecutorService builders;
+
+    /** holds the tiles built but not yet uploaded */
+    private final ConcurrentLinkedQueue<BuiltTile> built = new ConcurrentLinkedQueue<>();
+
+    /** holds the tiles being built or waiting to be uploaded */
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    /** holds the tiles visible in the last frame, others are not built */
+    private volatile Set<Long> wanted = Collections.emptySet();
+
+    /** holds the canvas tiles and path are drawn on */
+    private Canvas canvas;
+
+    /** holds the most tiles kept in the cache, sized from the window */
+    private int cacheTiles = 1;
+
+    /** holds the uploaded tiles by level and position, least recently used first */
+    private final LinkedHashMap<Long, WritableImage> tiles = new LinkedHashMap<Long, WritableImage>( 16, 0.75f, true ) {
+        @Override
+        protected boolean removeEldestEntry ( Map.Entry<Long, WritableImage> eldest ) {
+            return size() > cacheTiles;
+        }
+    };
+
+    /** holds the image position at the top left of the canvas */
+    private double viewX, viewY;
+
+    /** holds the screen pixels per image pixel */
+    private double scale = 1.0;
+
+    /** holds the last mouse position while dragging */
+    private double dragX, dragY;
+
+    /** true if the canvas needs to be drawn again */
+    private boolean dirty = true;
+
     /**
-     * Loads the output maze
-     * image to be drawn on
-     * the stage.
+     * Decodes the output maze image
+     * into levels and starts the tile
+     * builders. The decoded image is
+     * dropped once the levels are made,
+     * and nothing is uploaded until a
+     * tile becomes visible.
      */
-    public void init () {
+    @Override
+    public void init () throws IOException {
+
+        BufferedImage source = ImageIO.read( new File ( fileName ) );
+
+        if ( source == null ) {
+            throw new IOException( "Could not read image: " + fileName );
+        }
+
+        imageWidth = source.getWidth();
+        imageHeight = source.getHeight();
+
+        this.buildLevels( source );
 
-        Image im = new Image ( new File ( fileName ).toURI().toString() );
+        // leaves a core for the FX thread
+        builders = Executors.newFixedThreadPool( Math.max( 1, Runtime.getRuntime().availableProcessors() - 1 ), r -> {
 
-        loadImage = new ImageView ( im );
+            Thread t = new Thread( r, "tile-builder" );
+
+            t.setDaemon( true );
+
+            return t;
+
+        } );
+
+    }
+
+    /**
+     * Stops the tile builders
+     * when the window closes
+     */
+    @Override
+    public void stop () {
+
+        builders.shutdownNow();
+
+    }
+
+    /**
+     * Reads the image one row at a time
+     * into a byte per pixel, then makes
+     * each level from the one before by
+     * ORing every 2 by 2 block, so a
+     * pixel of any level is open if any
+     * image pixel under it is open, and
+     * thin corridors stay visible when
+     * zoomed out.
+     * @param source decoded image
+     */
+    private void buildLevels ( BufferedImage source ) {
+
+        ArrayList<byte[]> data = new ArrayList<>();
+        ArrayList<Integer> widths = new ArrayList<>();
+
+        byte[] level = new byte[ imageWidth * imageHeight ];
+        int[] row = new int[ imageWidth ];
+
+        for ( int y = 0; y < imageHeight; y++ ) {
+
+            source.getRGB( 0, y, imageWidth, 1, row, 0, imageWidth );
+
+            for ( int x = 0; x < imageWidth; x++ ) {
+
+                int rgb = row[x] & 0xFFFFFF;
+
+                // any non black pixel is open, matching how the Maze reads walls
+                if ( rgb == 0xFF0000 ) {
+                    level[ y * imageWidth + x ] = TRACE | OPEN;
+                } else if ( rgb != 0 ) {
+                    level[ y * imageWidth + x ] = OPEN;
+                }
+
+            }
+
+        }
+
+        int width = imageWidth;
+        int height = imageHeight;
+
+        data.add( level );
+        widths.add( width );
+
+        while ( width > 1 || height > 1 ) {
+
+            int nextWidth = ( width + 1 ) / 2;
+            int nextHeight = ( height + 1 ) / 2;
+
+            byte[] next = new byte[ nextWidth * nextHeight ];
+
+            for ( int y = 0; y < height; y++ ) {
+
+                int from = y * width;
+                int to = ( y >> 1 ) * nextWidth;
+
+                for ( int x = 0; x < width; x++ ) {
+                    next[ to + ( x >> 1 ) ] |= level[ from + x ];
+                }
+
+            }
+
+            level = next;
+            width = nextWidth;
+            height = nextHeight;
+
+            data.add( level );
+            widths.add( width );
+
+        }
+
+        levels = data.toArray( new byte[0][] );
+
+        levelWidths = new int[ widths.size() ];
+
+        for ( int i = 0; i < levelWidths.length; i++ ) {
+            levelWidths[i] = widths.get( i );
+        }
 
     }
 
     /**
      * Overrides the abstract start
-     * method to show the loaded png
-     * on the stage.
+     * method to show the tiled view
+     * of the png on the stage.
      * @param stage window
      */
     @Override
     public void start ( Stage stage ) {
 
-        // creates parent to show in scene
-        StackPane parent = new StackPane();
+        // creates parent and a canvas that follows its size
+        Pane parent = new Pane();
+        canvas = new Canvas();
+        canvas.widthProperty().bind( parent.widthProperty() );
+        canvas.heightProperty().bind( parent.heightProperty() );
+        canvas.widthProperty().addListener( ( o, a, b ) -> resize() );
+        canvas.heightProperty().addListener( ( o, a, b ) -> resize() );
+        parent.getChildren().add( canvas );
+
+        // zooms around the mouse position
+        parent.setOnScroll( e -> {
+
+            double factor = e.getDeltaY() > 0 ? 1.25 : 1 / 1.25;
+
+            zoom( factor, e.getX(), e.getY() );
+
+        } );
+
+        // pans while dragging
+        parent.setOnMousePressed( e -> {
+            dragX = e.getX();
+            dragY = e.getY();
+        } );
+
+        parent.setOnMouseDragged( e -> {
+
+            viewX -= ( e.getX() - dragX ) / scale;
+            viewY -= ( e.getY() - dragY ) / scale;
+
+            dragX = e.getX();
+            dragY = e.getY();
+
+            dirty = true;
+
+        } );
+
+        double width = Math.min( imageWidth, MAX_WINDOW );
+        double height = Math.min( imageHeight, MAX_WINDOW );
+
+        Scene scene = new Scene ( parent, width, height );
+
+        scene.setOnKeyPressed( e -> {
+
+            if ( e.getCode() == KeyCode.DIGIT0 || e.getCode() == KeyCode.HOME ) {
+                fit();
+            } else if ( e.getCode() == KeyCode.PLUS || e.getCode() == KeyCode.EQUALS ) {
+                zoom( 1.25, canvas.getWidth() / 2, canvas.getHeight() / 2 );
+            } else if ( e.getCode() == KeyCode.MINUS ) {
+                zoom( 1 / 1.25, canvas.getWidth() / 2, canvas.getHeight() / 2 );
+            }
+
+        } );
 
-        // adds image to parent
-        parent.getChildren().add( loadImage );
+        // uploads built tiles and draws at most once per frame, only when something changed
+        new AnimationTimer() {
+            @Override
+            public void handle ( long now ) {
+
+                upload();
+
+                if ( dirty ) {
+                    draw();
+                }
+
+            }
+        }.start();
 
         // sets scene and shows window
-        stage.setScene( new Scene ( parent ) );
-        stage.setResizable( false );
+        stage.setTitle( fileName );
+        stage.setScene( scene );
         stage.show();
+
+        // sizes the cache even if the canvas got its size before the listeners were added
+        resize();
+
+        fit();
+    }
+
+    /**
+     * Sizes the tile cache to hold
+     * CACHE_SCREENS screens of tiles.
+     * A drawn tile is never less than
+     * half TILE_SIZE on screen, so that
+     * bounds the tiles one screen shows.
+     */
+    private void resize () {
+
+        int across = (int) Math.ceil( canvas.getWidth() / ( TILE_SIZE / 2 ) ) + 1;
+        int down = (int) Math.ceil( canvas.getHeight() / ( TILE_SIZE / 2 ) ) + 1;
+
+        cacheTiles = CACHE_SCREENS * across * down;
+
+        // removeEldestEntry only trims one tile per put, so a smaller window trims here
+        Iterator<Long> eldest = tiles.keySet().iterator();
+
+        while ( tiles.size() > cacheTiles ) {
+            eldest.next();
+            eldest.remove();
+        }
+
+        dirty = true;
+
+    }
+
+    /**
+     * Scales the image to fit
+     * the window (never above
+     * one screen pixel per
+     * image pixel).
+     */
+    private void fit () {
+
+        double width = canvas.getWidth() > 0 ? canvas.getWidth() : MAX_WINDOW;
+        double height = canvas.getHeight() > 0 ? canvas.getHeight() : MAX_WINDOW;
+
+        scale = Math.min( 1.0, Math.min( width / imageWidth, height / imageHeight ) );
+
+        viewX = 0;
+        viewY = 0;
+
+        dirty = true;
+
+    }
+
+    /**
+     * Zooms by a factor keeping
+     * the image point under the
+     * given screen position fixed.
+     * @param factor zoom factor
+     * @param x screen x
+     * @param y screen y
+     */
+    private void zoom ( double factor, double x, double y ) {
+
+        double imageX = viewX + x / scale;
+        double imageY = viewY + y / scale;
+
+        double minScale = Math.min( 1.0, 0.5 * Math.min( canvas.getWidth() / imageWidth, canvas.getHeight() / imageHeight ) );
+
+        scale = Math.max( minScale, Math.min( MAX_SCALE, scale * factor ) );
+
+        viewX = imageX - x / scale;
+        viewY = imageY - y / scale;
+
+        dirty = true;
+
+    }
+
+    /**
+     * Uploads built tiles to the cache
+     * until the frame's upload time
+     * runs out. Tiles left over are
+     * uploaded next frame.
+     */
+    private void upload () {
+
+        long startTime = System.nanoTime();
+
+        BuiltTile b;
+
+        while ( System.nanoTime() - startTime < UPLOAD_NANOS && ( b = built.poll() ) != null ) {
+
+            WritableImage tile = new WritableImage( b.width, b.height );
+
+            PixelWriter pw = tile.getPixelWriter();
+
+            pw.setPixels( 0, 0, b.width, b.height, PixelFormat.getIntArgbInstance(), b.pixels, 0, b.width );
+
+            tiles.put( b.key, tile );
+
+            pending.remove( b.key );
+
+            dirty = true;
+
+        }
+
+    }
+
+    /**
+     * Draws the visible tiles in the
+     * cache and the path, and asks
+     * the builders for the visible
+     * tiles that are missing. Nothing
+     * is built on the FX thread.
+     */
+    private void draw () {
+
+        dirty = false;
+
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+
+        gc.setImageSmoothing( false );
+        gc.setFill( Color.DIMGRAY );
+        gc.fillRect( 0, 0, canvas.getWidth(), canvas.getHeight() );
+
+        // each level halves the resolution, pick the one closest to the zoom
+        int level = 0;
+        while ( level + 1 < levels.length && scale * ( 1 << ( level + 1 ) ) <= 1.0 ) {
+            level++;
+        }
+
+        int step = 1 << level;
+        int span = TILE_SIZE * step;
+
+        int firstX = Math.max( 0, (int) Math.floor( viewX / span ) );
+        int firstY = Math.max( 0, (int) Math.floor( viewY / span ) );
+        int lastX = Math.min( ( imageWidth - 1 ) / span, (int) Math.floor( ( viewX + canvas.getWidth() / scale ) / span ) );
+        int lastY = Math.min( ( imageHeight - 1 ) / span, (int) Math.floor( ( viewY + canvas.getHeight() / scale ) / span ) );
+
+        Set<Long> visible = new HashSet<>();
+        ArrayList<long[]> missing = new ArrayList<>();
+
+        for ( int ty = firstY; ty <= lastY; ty++ ) {
+
+            for ( int tx = firstX; tx <= lastX; tx++ ) {
+
+                long key = ( (long) level << 48 ) | ( (long) ty << 24 ) | tx;
+
+                visible.add( key );
+
+                WritableImage tile = tiles.get( key );
+
+                if ( tile == null ) {
+
+                    missing.add( new long[] { key, level, tx, ty } );
+
+                    continue;
+
+                }
+
+                gc.drawImage( tile,
+                        ( tx * span - viewX ) * scale,
+                        ( ty * span - viewY ) * scale,
+                        tile.getWidth() * step * scale,
+                        tile.getHeight() * step * scale );
+
+            }
+
+        }
+
+        // set before asking, so builders skip tiles scrolled or zoomed away
+        wanted = visible;
+
+        for ( long[] m : missing ) {
+
+            if ( pending.add( m[0] ) ) {
+                this.request( m[0], (int) m[1], (int) m[2], (int) m[3] );
+            }
+
+        }
+
+        drawPath( gc );
+
+    }
+
+    /**
+     * Builds a tile on a builder thread
+     * unless it is no longer visible
+     * by the time the thread gets to it
+     * @param key cache key of the tile
+     * @param level level of the tile
+     * @param tx tile column
+     * @param ty tile row
+     */
+    private void request ( long key, int level, int tx, int ty ) {
+
+        builders.execute( () -> {
+
+            if ( !wanted.contains( key ) ) {
+
+                pending.remove( key );
+
+                // a frame may want it again while this thread gives it up, and not ask since it was pending
+                if ( !wanted.contains( key ) || !pending.add( key ) ) {
+                    return;
+                }
+
+            }
+
+            built.add( this.buildTile( key, level, tx, ty ) );
+
+        } );
+
+    }
+
+    /**
+     * Builds the pixels of a tile
+     * from the bytes of its level.
+     * Safe to call from any thread.
+     * @param key cache key of the tile
+     * @param level level of the tile
+     * @param tx tile column
+     * @param ty tile row
+     * @return built tile
+     */
+    private BuiltTile buildTile ( long key, int level, int tx, int ty ) {
+
+        byte[] data = levels[ level ];
+        int levelWidth = levelWidths[ level ];
+        int levelHeight = data.length / levelWidth;
+
+        int x0 = tx * TILE_SIZE;
+        int y0 = ty * TILE_SIZE;
+
+        int width = Math.min( TILE_SIZE, levelWidth - x0 );
+        int height = Math.min( TILE_SIZE, levelHeight - y0 );
+
+        int[] pixels = new int[ width * height ];
+
+        for ( int j = 0; j < height; j++ ) {
+
+            int row = ( y0 + j ) * levelWidth + x0;
+
+            for ( int i = 0; i < width; i++ ) {
+                pixels[ j * width + i ] = COLORS[ data[ row + i ] ];
+            }
+
+        }
+
+        return new BuiltTile( key, width, height, pixels );
+
+    }
+
+    /**
+     * Draws the path through the
+     * centers of its waypoints.
+     * @param gc canvas graphics
+     */
+    private void drawPath ( GraphicsContext gc ) {
+
+        if ( path == null || path.isEmpty() ) {
+            return;
+        }
+
+        gc.setStroke( Color.RED );
+        gc.setLineWidth( Math.max( 1.0, scale ) );
+
+        gc.beginPath();
+
+        for ( int i = 0; i < path.size(); i++ ) {
+
+            double x = ( path.get( i )[0] + 0.5 - viewX ) * scale;
+            double y = ( path.get( i )[1] + 0.5 - viewY ) * scale;
+
+            if ( i == 0 ) {
+                gc.moveTo( x, y );
+            } else {
+                gc.lineTo( x, y );
+            }
+
+        }
+
+        gc.stroke();
+
     }
 
     /**
@@ -62,8 +623,24 @@ public class MazeViewer extends Application {
      */
     public static void showTrace ( String file ) {
 
+        showTrace( file, null );
+
+    }
+
+    /**
+     * Used by the MazeSolver
+     * algorithm to show a maze
+     * file with the solved path
+     * drawn over it
+     * @param file file name
+     * @param waypoints path waypoints
+     */
+    public static void showTrace ( String file, ArrayList<int[]> waypoints ) {
+
         fileName = file;
 
+        path = waypoints;
+
         Application.launch();
 
     }
@@ -77,4 +654,36 @@ public class MazeViewer extends Application {
         showTrace( args[0] );
 
     }
+
+    /**
+     * Class holds the pixels of a tile
+     * built on a builder thread until
+     * the FX thread uploads it
+     */
+    private static class BuiltTile {
+
+        /** holds the cache key of the tile */
+        private final long key;
+
+        /** holds the size of the tile */
+        private final int width, height;
+
+        /** holds the ARGB pixels of the tile */
+        private final int[] pixels;
+
+        /**
+         * Constructor for the BuiltTile
+         * @param key cache key
+         * @param width tile width
+         * @param height tile height
+         * @param pixels ARGB pixels
+         */
+        BuiltTile ( long key, int width, int height, int[] pixels ) {
+            this.key = key;
+            this.width = width;
+            this.height = height;
+            this.pixels = pixels;
+        }
+
+    }
 }
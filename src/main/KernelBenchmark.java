@@ -0,0 +1,83 @@
+package main;
+
+import model.Maze;
+
+/**
+ * Times building the Node map
+ * with the scalar and the packed
+ * row kernels on the same maze.
+ * Usage: java KernelBenchmark input_file [rounds]
+ */
+public class KernelBenchmark {
+
+    /** List of kernels to compare */
+    private static final String[] kernels = {
+            "scalar", "packed"
+    };
+
+    /**
+     * The main method
+     * loads the maze once and
+     * builds its Node map
+     * repeatedly with each kernel.
+     * @param args input file and rounds
+     */
+    public static void main ( String[] args ) {
+
+        if ( args.length < 1 ) {
+
+            System.err.println("Usage: java KernelBenchmark input_file [rounds]");
+            return;
+        }
+
+        int rounds = args.length > 1 ? Integer.parseInt( args[1] ) : 10;
+
+        // the scalar kernel reads imagePixels, which are only loaded while it is chosen
+        Maze.setKernel( "scalar" );
+
+        Maze maze = new Maze( args[0], false );
+
+        for ( String kernel : kernels ) {
+
+            Maze.setKernel( kernel );
+
+            // warms up the JIT before timing
+            for ( int i = 0; i < Math.max( 1, rounds / 2 ); i++ ) {
+                maze.getNodeMap();
+            }
+
+            long startTime = System.nanoTime();
+
+            for ( int i = 0; i < rounds; i++ ) {
+                maze.getNodeMap();
+            }
+
+            System.out.printf("%s kernel: %d nodes, %.3f ms per build\n",
+                    kernel, maze.getNodeCount(), ( System.nanoTime() - startTime ) / 1e6 / rounds);
+
+        }
+
+        // the part the packed kernel replaces, without allocating and linking Nodes
+        long[] mask = new long[ ( maze.getWidth() + 63 ) >>> 6 ];
+        long found = 0;
+
+        long startTime = System.nanoTime();
+
+        for ( int i = 0; i < rounds; i++ ) {
+            for ( int y = 1; y < maze.getHeight() - 1; y++ ) {
+
+                maze.nodeRow( y, mask );
+
+                for ( long m : mask ) {
+                    found += Long.bitCount( m );
+                }
+
+            }
+        }
+
+        System.out.printf("packed classification only: %d nodes, %.3f ms per pass\n",
+                found / rounds + 2, ( System.nanoTime() - startTime ) / 1e6 / rounds);
+
+    }
+
+}
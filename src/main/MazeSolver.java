@@ -1,24 +1,47 @@
 package main;
 
 import algorithms.*;
+import model.Maze;
 
 /**
  * Main class for the Maze
  * solving program.
- * Usage: java MazeSolver input_file output_file algorithm --output
+ * Usage: java MazeSolver input_file output_file algorithm [options]
  * java MazeSolver --help
  * to get list of algorithms
+ * and options
  * @author Matt Stetter
  */
 public class MazeSolver {
 
-    /**
-     * List of algorithms.
-     * Only Dijkstra is
-     * implemented as of now.
-     */
+    /** usage line printed for help and usage errors */
+    private static final String USAGE = "Usage: java MazeSolver input_file output_file algorithm [options]";
+
+    /** List of algorithms */
     private static final String[] algorithms = {
-            "dijkstra"
+            "dijkstra",
+            "delta",
+            "dial",
+            "auto",
+            "pipelined",
+            "astar",
+            "lazy",
+            "race",
+            "walker",
+            "flood"
+    };
+
+    /** List of options */
+    private static final String[] options = {
+            "--show                 show the traced maze in the viewer",
+            "--format=FORMAT        png (default), json, bin, or svg",
+            "--deflate=LEVEL        PNG deflate level 0 (fastest) to 9 (smallest)",
+            "--palette              write the PNG as a 2-bit palette image",
+            "--kernel=KERNEL        node map kernel: packed (default) or scalar",
+            "--precheck             reject unsolvable mazes before building the node map",
+            "--delta=WIDTH          bucket width for delta (default: average edge length)",
+            "--timeout=MS           stop the search after MS milliseconds and trace the partial path",
+            "--race-log=FILE        add the winner of race to FILE as a line of comma separated values"
     };
 
     /**
@@ -31,7 +54,54 @@ public class MazeSolver {
     public static void parseArguments ( String[] args ) {
 
         // true if plot was chosen
-        boolean showPlot = args[3].equals("--show");
+        boolean showPlot = false;
+
+        for ( int i = 3; i < args.length; i++ ) {
+
+            String arg = args[i];
+
+            if ( arg.equals("--show") ) {
+
+                showPlot = true;
+
+            } else if ( arg.startsWith("--format=") ) {
+
+                PathTrace.setFormat( arg.substring( "--format=".length() ) );
+
+            } else if ( arg.startsWith("--deflate=") ) {
+
+                PathTrace.setDeflateLevel( Integer.parseInt( arg.substring( "--deflate=".length() ) ) );
+
+            } else if ( arg.equals("--palette") ) {
+
+                PathTrace.setPalette( true );
+
+            } else if ( arg.startsWith("--kernel=") ) {
+
+                Maze.setKernel( arg.substring( "--kernel=".length() ) );
+
+            } else if ( arg.equals("--precheck") ) {
+
+                Reachability.setEnabled( true );
+
+            } else if ( arg.startsWith("--delta=") ) {
+
+                DeltaStepping.setDelta( Integer.parseInt( arg.substring( "--delta=".length() ) ) );
+
+            } else if ( arg.startsWith("--timeout=") ) {
+
+                EngineRunner.setTimeout( Long.parseLong( arg.substring( "--timeout=".length() ) ) );
+
+            } else if ( arg.startsWith("--race-log=") ) {
+
+                Race.setLog( arg.substring( "--race-log=".length() ) );
+
+            } else {
+
+                throw new IllegalArgumentException( "Unknown option: " + arg );
+
+            }
+        }
 
         // times the algorithm and print in seconds
         double startTime = System.currentTimeMillis();
@@ -40,6 +110,46 @@ public class MazeSolver {
 
             Dijkstra.solve( args[0], args[1], showPlot );
 
+        } else if ( args[2].equals("delta") ) {
+
+            DeltaStepping.solve( args[0], args[1], showPlot );
+
+        } else if ( args[2].equals("dial") ) {
+
+            Dial.solve( args[0], args[1], showPlot );
+
+        } else if ( args[2].equals("auto") ) {
+
+            Auto.solve( args[0], args[1], showPlot );
+
+        } else if ( args[2].equals("pipelined") ) {
+
+            Pipelined.solve( args[0], args[1], showPlot );
+
+        } else if ( args[2].equals("astar") ) {
+
+            AStar.solve( args[0], args[1], showPlot, false );
+
+        } else if ( args[2].equals("lazy") ) {
+
+            AStar.solve( args[0], args[1], showPlot, true );
+
+        } else if ( args[2].equals("race") ) {
+
+            Race.solve( args[0], args[1], showPlot );
+
+        } else if ( args[2].equals("walker") ) {
+
+            Walker.solve( args[0], args[1], showPlot );
+
+        } else if ( args[2].equals("flood") ) {
+
+            FloodFill.solve( args[0], args[1], showPlot );
+
+        } else {
+
+            throw new IllegalArgumentException( "Unknown algorithm: " + args[2] );
+
         }
 
         System.out.printf("Complete operation: Finished in %.5f seconds\n",
@@ -59,9 +169,9 @@ public class MazeSolver {
 
         // filters out help command and usage errors
         if ( args.length == 1
-                && ( args[0].equals( "--help" ) ) || args[0].equals( "--h" ) ) {
+                && ( args[0].equals( "--help" ) || args[0].equals( "--h" ) ) ) {
 
-            System.out.println("Usage: java MazeSolver input_file output_file algorithm --show");
+            System.out.println( USAGE );
 
             System.out.println("Usable algorithms: ");
 
@@ -71,14 +181,34 @@ public class MazeSolver {
 
             }
 
-        } else if (args.length != 4) {
+            System.out.println("Options: ");
+
+            for ( String option : options ) {
+
+                System.out.println( option );
+
+            }
 
-            System.err.println("Usage: java MazeSolver input_file output_file algorithm --show");
+            return;
+
+        } else if (args.length < 3) {
+
+            System.err.println( USAGE );
             return;
         }
 
         // sends arguments to helper method parseArguments
-        parseArguments( args );
+        try {
+
+            parseArguments( args );
+
+        } catch ( IllegalArgumentException e ) {
+
+            System.err.println( "Error: " + e.getMessage() );
+
+            System.err.println( USAGE );
+
+        }
 
     }
 
@@ -0,0 +1,347 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Class represents a Node map of a
+ * Maze that is only built where a
+ * search goes. A Node's neighbors are
+ * found the first time it is expanded
+ * by walking along its row and column
+ * to the next pixel where the full
+ * Node map would place a Node. Nodes
+ * are kept in a table keyed by their
+ * position, so each is made once.
+ */
+public class LazyNodeMap {
+
+    /** holds the Maze image */
+    private final Maze maze;
+
+    /** holds the Nodes made so far by position */
+    private final NodeTable table = new NodeTable();
+
+    /** holds the start and finish Node, null if the Maze has no opening */
+    private Maze.Node start, finish;
+
+    /** true for the ids of Nodes whose neighbors are found */
+    private boolean[] expanded = new boolean[ 1024 ];
+
+    /** holds the number of Nodes made */
+    private int nodeCount;
+
+    /**
+     * Constructor for the LazyNodeMap.
+     * Makes only the start and finish
+     * Nodes.
+     * @param maze loaded Maze, the Node map is not needed
+     */
+    public LazyNodeMap ( Maze maze ) {
+
+        this.maze = maze;
+
+        int startX = maze.getStartX();
+        int finishX = maze.getFinishX();
+
+        if ( startX >= 0 && finishX >= 0 ) {
+            this.start = this.node( startX, 0 );
+            this.finish = this.node( finishX, maze.getHeight() - 1 );
+        }
+
+    }
+
+    /**
+     * Returns the start Node
+     * @return start Node
+     */
+    public Maze.Node getStart () {
+        return this.start;
+    }
+
+    /**
+     * Returns the finish Node
+     * @return finish Node
+     */
+    public Maze.Node getFinish () {
+        return this.finish;
+    }
+
+    /**
+     * Returns the number of
+     * Nodes made so far
+     * @return Node total
+     */
+    public int getNodeCount () {
+        return this.nodeCount;
+    }
+
+    /**
+     * Finds and links the neighbors
+     * of a Node if that has not been
+     * done yet. Links are set on both
+     * Nodes, so a neighbor does not
+     * walk back along the same corridor.
+     * @param n Node about to be searched
+     */
+    public void expand ( Maze.Node n ) {
+
+        if ( this.expanded[ n.getId() ] ) {
+            return;
+        }
+
+        this.expanded[ n.getId() ] = true;
+
+        // north, east, south, west as in Maze.Node
+        int[] dx = { 0, 1, 0, -1 };
+        int[] dy = { -1, 0, 1, 0 };
+
+        for ( int i = 0; i < 4; i++ ) {
+
+            if ( n.getNeighbor( i ) != null ) {
+                continue;
+            }
+
+            Maze.Node neighbor = this.walk( n.getXPos(), n.getYPos(), dx[i], dy[i] );
+
+            if ( neighbor != null ) {
+
+                n.setNeighbor( i, neighbor );
+
+                neighbor.setNeighbor( ( i + 2 ) % 4, n );
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Walks from a Node in one direction
+     * through open pixels until reaching
+     * a pixel that holds a Node
+     * @param x x position
+     * @param y y position
+     * @param dx x step
+     * @param dy y step
+     * @return the Node reached, or null
+     */
+    private Maze.Node walk ( int x, int y, int dx, int dy ) {
+
+        x += dx;
+        y += dy;
+
+        while ( this.inside( x, y ) && this.maze.isOpen( x, y ) ) {
+
+            if ( this.isNodeAt( x, y ) ) {
+                return this.node( x, y );
+            }
+
+            x += dx;
+            y += dy;
+
+        }
+
+        return null;
+
+    }
+
+    /**
+     * Returns true if the full Node
+     * map would place a Node at the
+     * given open pixel (see Maze.nodeRow)
+     * @param x x position
+     * @param y y position
+     * @return boolean
+     */
+    private boolean isNodeAt ( int x, int y ) {
+
+        int last = this.maze.getHeight() - 1;
+
+        // the top and bottom rows only hold the start and finish
+        if ( y == 0 || y == last ) {
+            return ( y == 0 ? this.start : this.finish ).getXPos() == x;
+        }
+
+        if ( x < 1 || x > this.maze.getWidth() - 2 ) {
+            return false;
+        }
+
+        // the Node map treats the pixel left of x = 1 as a wall
+        boolean prv = x > 1 && this.maze.isOpen( x - 1, y );
+        boolean nxt = this.maze.isOpen( x + 1, y );
+        boolean above = this.maze.isOpen( x, y - 1 );
+        boolean below = this.maze.isOpen( x, y + 1 );
+
+        if ( prv != nxt ) {
+            return true;
+        }
+
+        return prv ? above || below : !( above && below );
+
+    }
+
+    /**
+     * Returns true if the position
+     * is inside the image
+     * @param x x position
+     * @param y y position
+     * @return boolean
+     */
+    private boolean inside ( int x, int y ) {
+        return x >= 0 && y >= 0 && x < this.maze.getWidth() && y < this.maze.getHeight();
+    }
+
+    /**
+     * Returns the Node at a position,
+     * making it if it does not exist
+     * @param x x position
+     * @param y y position
+     * @return Node
+     */
+    private Maze.Node node ( int x, int y ) {
+
+        long key = (long) y * this.maze.getWidth() + x;
+
+        Maze.Node n = this.table.get( key );
+
+        if ( n == null ) {
+
+            n = new Maze.Node( x, y );
+
+            n.setId( this.nodeCount++ );
+
+            if ( n.getId() >= this.expanded.length ) {
+                this.expanded = Arrays.copyOf( this.expanded, this.expanded.length * 2 );
+            }
+
+            this.table.put( key, n );
+
+        }
+
+        return n;
+
+    }
+
+    /**
+     * Class represents an open
+     * addressing hash table from
+     * long positions to Nodes, so no
+     * key is boxed.
+     */
+    private static class NodeTable {
+
+        /** marks an empty slot */
+        private static final long EMPTY = -1;
+
+        /** holds the keys of each slot */
+        private long[] keys = new long[ 1024 ];
+
+        /** holds the Nodes of each slot */
+        private Maze.Node[] values = new Maze.Node[ 1024 ];
+
+        /** holds the number of Nodes in the table */
+        private int size;
+
+        /**
+         * Constructor for the NodeTable,
+         * marks every slot empty
+         */
+        NodeTable () {
+            Arrays.fill( this.keys, EMPTY );
+        }
+
+        /**
+         * Returns the Node with the
+         * key, or null
+         * @param key position
+         * @return Node
+         */
+        Maze.Node get ( long key ) {
+
+            int mask = this.keys.length - 1;
+
+            for ( int i = slot( key, mask ); this.keys[i] != EMPTY; i = ( i + 1 ) & mask ) {
+
+                if ( this.keys[i] == key ) {
+                    return this.values[i];
+                }
+
+            }
+
+            return null;
+
+        }
+
+        /**
+         * Adds a Node with a key that
+         * is not in the table yet
+         * @param key position
+         * @param n Node
+         */
+        void put ( long key, Maze.Node n ) {
+
+            // keeps the table at most half full
+            if ( ( this.size + 1 ) * 2 > this.keys.length ) {
+                this.resize();
+            }
+
+            int mask = this.keys.length - 1;
+
+            int i = slot( key, mask );
+
+            while ( this.keys[i] != EMPTY ) {
+                i = ( i + 1 ) & mask;
+            }
+
+            this.keys[i] = key;
+            this.values[i] = n;
+
+            ++this.size;
+
+        }
+
+        /**
+         * Doubles the table and
+         * adds every Node again
+         */
+        private void resize () {
+
+            long[] oldKeys = this.keys;
+            Maze.Node[] oldValues = this.values;
+
+            this.keys = new long[ oldKeys.length * 2 ];
+            this.values = new Maze.Node[ oldKeys.length * 2 ];
+
+            Arrays.fill( this.keys, EMPTY );
+
+            this.size = 0;
+
+            for ( int i = 0; i < oldKeys.length; i++ ) {
+
+                if ( oldKeys[i] != EMPTY ) {
+                    this.put( oldKeys[i], oldValues[i] );
+                }
+
+            }
+
+        }
+
+        /**
+         * Returns the first slot to
+         * try for a key
+         * @param key position
+         * @param mask table size - 1
+         * @return slot
+         */
+        private static int slot ( long key, int mask ) {
+
+            // spreads nearby positions over the table
+            long h = key * 0x9E3779B97F4A7C15L;
+
+            return (int) ( h ^ ( h >>> 32 ) ) & mask;
+
+        }
+
+    }
+
+}
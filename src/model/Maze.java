@@ -5,6 +5,7 @@ import java.awt.image.BufferedImage;
 import java.awt.image.Raster;
 import java.io.*;
 import java.util.ArrayList;
+import java.util.function.IntConsumer;
 
 
 /**
@@ -35,6 +36,9 @@ public class Maze {
         /** holds the node its tentatively connected to */
         private Node possible;
 
+        /** holds the index of the Node in the Maze (-1 if not in a Node map) */
+        private int id = -1;
+
         /**
          * Constructor for the Node
          * that holds the x and y
@@ -138,6 +142,27 @@ public class Maze {
             this.possible = possible;
         }
 
+        /**
+         * Returns the index of the
+         * Node in the Node map, so
+         * searches can keep their
+         * state in arrays
+         * @return id
+         */
+        public int getId () {
+            return this.id;
+        }
+
+        /**
+         * Sets the index of the Node,
+         * used by Node maps that
+         * create Nodes themselves
+         * @param id id
+         */
+        void setId ( int id ) {
+            this.id = id;
+        }
+
         /**
          * toString override, returns
          * the x and y position of the
@@ -179,6 +204,9 @@ public class Maze {
     /** holds a 2d array of the image pixels (0 for black, 1 for white) */
     private int[][] imagePixels;
 
+    /** holds the name of the image file */
+    private String imageName;
+
     /** holds the height and width of the maze */
     private int height, width;
 
@@ -188,6 +216,21 @@ public class Maze {
     /** holds the counter of the number of nodes in the image */
     private int nodeCount;
 
+    /** holds every Node of the Node map by id */
+    private ArrayList<Node> nodes = new ArrayList<>();
+
+    /** holds the image pixels packed 64 to a long (bit set for white), row by row */
+    private long[] packedPixels;
+
+    /** holds the number of longs in one packed row */
+    private int wordsPerRow;
+
+    /** holds the Nodes with open space below them, by column, while building */
+    private ArrayList<Node> topNodes;
+
+    /** true if the Node map is built with the packed row kernel */
+    private static boolean packedKernel = true;
+
     /**
      * Constructor for the Maze.
      * Loads the image file and
@@ -195,7 +238,24 @@ public class Maze {
      * Maze.
      * @param imageName the name of the file
      */
-    public Maze ( String imageName, String outImageName ) {
+    public Maze ( String imageName ) {
+
+        this( imageName, true );
+
+    }
+
+    /**
+     * Constructor for the Maze.
+     * Loads the image file and
+     * creates a Node map of the
+     * Maze if asked to. Otherwise
+     * getNodeMap can be called later.
+     * @param imageName the name of the file
+     * @param buildNodeMap true to create the Node map
+     */
+    public Maze ( String imageName, boolean buildNodeMap ) {
+
+        this.imageName = imageName;
 
         // attempts to load BufferedImage from file name
         BufferedImage image = null;
@@ -219,49 +279,36 @@ public class Maze {
             return;
         }
 
-        // gets an array of the image data
-        int[] pixelArray = imageData.getPixels( 0, 0, image.getWidth(), image.getHeight(), new int[ image.getWidth() * image.getHeight() ] );
+        this.wordsPerRow = ( this.width + 63 ) >>> 6;
+        this.packedPixels = new long[ this.wordsPerRow * this.height ];
 
-        // loads the array into a 2d array of image data
-        this.imagePixels = new int[image.getHeight()][image.getWidth()];
-        int count = 0;
-        for (int y = 0; y < imageData.getHeight(); y++) {
-            for (int x = 0; x < imageData.getWidth(); x++) {
+        // only the scalar kernel reads imagePixels, so the packed kernel never holds an int per pixel
+        if ( !packedKernel ) {
+            this.imagePixels = new int[this.height][];
+        }
 
-                this.imagePixels[y][x] = pixelArray[count];
-                ++count;
+        // reads one row at a time and packs it into rows of 64 pixel words
+        for (int y = 0; y < this.height; y++) {
 
+            int[] row = imageData.getPixels( 0, y, this.width, 1, new int[ this.width ] );
+
+            if ( this.imagePixels != null ) {
+                this.imagePixels[y] = row;
             }
-        }
 
-        /**
-         * Uses InputStream and
-         * OutputStream to load the contents
-         * of the initial file to the
-         * output file.
-         */
-        InputStream is = null;
-        OutputStream os = null;
-        try {
-            is = new FileInputStream( new File ( imageName ) );
-            os = new FileOutputStream( new File ( outImageName ) );
-            byte[] buffer = new byte[1024];
-            int length;
-            try {
-                while ((length = is.read(buffer)) > 0) {
-                    os.write( buffer, 0, length );
+            for (int x = 0; x < this.width; x++) {
+
+                if ( row[x] > 0 ) {
+                    this.packedPixels[ y * this.wordsPerRow + ( x >>> 6 ) ] |= 1L << x;
                 }
-            } catch ( IOException e ) {
-                System.err.println("Failure to copy file.");
-                return;
+
             }
-        } catch ( FileNotFoundException e ) {
-            System.err.println("Failure to find file.");
-            return;
         }
 
         // calls to make Node map
-        this.getNodeMap();
+        if ( buildNodeMap ) {
+            this.getNodeMap();
+        }
     }
 
     /**
@@ -274,6 +321,27 @@ public class Maze {
      */
     public void getNodeMap () {
 
+        this.getNodeMap( this.height, null );
+
+    }
+
+    /**
+     * Creates the node map of the
+     * given image data, reporting
+     * progress every few rows. When
+     * onBand is given a row count r,
+     * every Node above row r exists
+     * and every link between two of
+     * those Nodes is set. It is given
+     * the height once the map is done.
+     * @param bandRows rows between reports
+     * @param onBand receives the finished row count, may be null
+     */
+    public void getNodeMap ( int bandRows, IntConsumer onBand ) {
+
+        this.nodeCount = 0;
+        this.nodes = new ArrayList<>();
+
         /**
          * Allocates an ArrayList the size
          * of the width of the image with
@@ -282,7 +350,7 @@ public class Maze {
          * blank spaces below them such that
          * lower nodes can connect to them.
          */
-        ArrayList<Node> topNodes = new ArrayList<>(this.width);
+        topNodes = new ArrayList<>(this.width);
         for ( int i = 0; i < this.width; i++ ) {
             topNodes.add( null );
         }
@@ -291,7 +359,7 @@ public class Maze {
         // (assumes start node at top)
         for ( int x = 1; x < this.width; x++ ) {
 
-            if (imagePixels[0][x] > 0) {
+            if ( this.isOpenAt( 0, x ) ) {
 
                 Node n = new Node( x, 0 );
 
@@ -299,166 +367,388 @@ public class Maze {
 
                 topNodes.set( x, n );
 
-                this.nodeCount += 1;
+                this.addNode( n );
 
                 break;
 
             }
         }
 
-        /**
-         * Iterates through image data
-         * and decides at each pixel if a
-         * Node should be placed there.
-         * Afterwards, if a Node was placed,
-         * it decides if the Node should link
-         * to Nodes above it, or get saved as
-         * a top Node for Nodes below it
-         * to connect.
-         */
+        // links every row between the start and finish rows
         for ( int y = 1; y < this.height - 1; y++ ) {
 
-            // buffered previous, current, and next pixel value to optimize
-            boolean prv = false;
-            boolean cur = false;
-            boolean nxt = this.imagePixels[y][1] > 0;
+            // a Maze loaded for the packed kernel has no imagePixels
+            if ( packedKernel || this.imagePixels == null ) {
+                this.packedRow( y );
+            } else {
+                this.scalarRow( y );
+            }
 
-            // represents the node to the left of the current x position
-            Node leftNode = null;
+            if ( onBand != null && y % bandRows == 0 ) {
+                onBand.accept( y + 1 );
+            }
 
-            for ( int x = 1; x < this.width - 1; x++ ) {
+        }
+
+        // finds the finish node, saves it, and connects it to the topNode
+        for (int x = 1; x < this.width - 1; x++) {
 
-                // increments the previous, current, and next values
-                prv = cur;
-                cur = nxt;
-                nxt = imagePixels[y][x + 1] > 0;
+            if ( this.isOpenAt( ( this.height - 1 ) * this.wordsPerRow, x ) ) {
 
-                // initializes the current Node
-                Node n = null;
+                this.finish = new Node( x, this.height - 1 );
+
+                Node top = topNodes.get( x );
+
+                // a walled off finish is left unlinked
+                if ( top != null ) {
+
+                    top.setNeighbor(  2,  this.finish );
+
+                    this.finish.setNeighbor( 0, top );
 
-                // if the current pixel is a wall, move on
-                if ( !cur ) {
-                    continue;
                 }
 
-                if ( prv ) {
+                this.addNode( this.finish );
 
-                    // OPEN, OPEN, OPEN
-                    if ( nxt ) {
+                break;
 
-                        // only place a node if the top or bottom is not a wall
-                        if (imagePixels[y-1][x] > 0
-                            || imagePixels[y+1][x] > 0) {
+            }
 
-                            n = new Node ( x, y );
+        }
 
-                            // linking to the leftNode
-                            if ( leftNode != null ) {
+        topNodes = null;
 
-                                n.setNeighbor(3, leftNode);
+        if ( onBand != null ) {
+            onBand.accept( this.height );
+        }
+    }
 
-                                leftNode.setNeighbor(1, n);
+    /**
+     * Counts a new Node, gives it
+     * the next id, and keeps it in
+     * the list of Nodes.
+     * @param n new Node
+     */
+    private void addNode ( Node n ) {
 
+        n.id = this.nodeCount;
 
-                                leftNode = n;
+        this.nodes.add( n );
 
-                            }
+        this.nodeCount += 1;
 
-                        }
+    }
+
+    /**
+     * Links one row of the Node map
+     * one pixel at a time.
+     * Iterates through image data
+     * and decides at each pixel if a
+     * Node should be placed there.
+     * Afterwards, if a Node was placed,
+     * it decides if the Node should link
+     * to Nodes above it, or get saved as
+     * a top Node for Nodes below it
+     * to connect.
+     * @param y row
+     */
+    private void scalarRow ( int y ) {
+
+        // buffered previous, current, and next pixel value to optimize
+        boolean prv = false;
+        boolean cur = false;
+        boolean nxt = this.imagePixels[y][1] > 0;
+
+        // represents the node to the left of the current x position
+        Node leftNode = null;
+
+        for ( int x = 1; x < this.width - 1; x++ ) {
+
+            // increments the previous, current, and next values
+            prv = cur;
+            cur = nxt;
+            nxt = imagePixels[y][x + 1] > 0;
+
+            // initializes the current Node
+            Node n = null;
+
+            // if the current pixel is a wall, move on
+            if ( !cur ) {
+                continue;
+            }
+
+            if ( prv ) {
+
+                // OPEN, OPEN, OPEN
+                if ( nxt ) {
 
-                    // OPEN, OPEN, WALL. place a Node because the right is a wall
-                    } else {
+                    // only place a node if the top or bottom is not a wall
+                    if (imagePixels[y-1][x] > 0
+                        || imagePixels[y+1][x] > 0) {
 
                         n = new Node ( x, y );
 
                         // linking to the leftNode
                         if ( leftNode != null ) {
 
-                            n.setNeighbor( 3, leftNode );
+                            n.setNeighbor(3, leftNode);
 
-                            leftNode.setNeighbor( 1, n );
+                            leftNode.setNeighbor(1, n);
+
+
+                            leftNode = n;
 
                         }
 
                     }
 
+                // OPEN, OPEN, WALL. place a Node because the right is a wall
                 } else {
 
-                    // WALL, OPEN, OPEN. place a Node because the left is a wall
-                    if ( nxt ) {
+                    n = new Node ( x, y );
 
-                        n = new Node ( x, y );
+                    // linking to the leftNode
+                    if ( leftNode != null ) {
 
-                        leftNode = n;
+                        n.setNeighbor( 3, leftNode );
 
-                    // WALL, OPEN, WALL. place a Node if the top or bottom is a wall (dead end)
-                    } else {
+                        leftNode.setNeighbor( 1, n );
 
-                        if (imagePixels[y + 1][x] == 0
-                            || imagePixels[y - 1][x] == 0) {
+                    }
 
-                            n = new Node ( x, y );
+                }
 
-                        }
+            } else {
+
+                // WALL, OPEN, OPEN. place a Node because the left is a wall
+                if ( nxt ) {
+
+                    n = new Node ( x, y );
+
+                    leftNode = n;
+
+                // WALL, OPEN, WALL. place a Node if the top or bottom is a wall (dead end)
+                } else {
+
+                    if (imagePixels[y + 1][x] == 0
+                        || imagePixels[y - 1][x] == 0) {
+
+                        n = new Node ( x, y );
 
                     }
 
                 }
 
-                // if a Node has been created
-                if ( n != null ) {
+            }
+
+            // if a Node has been created
+            if ( n != null ) {
 
-                    // if the top is empty, try to link to the topNode
-                    if ( imagePixels[y - 1][x] > 0 ) {
+                // if the top is empty, try to link to the topNode
+                if ( imagePixels[y - 1][x] > 0 ) {
 
-                        Node top = topNodes.get( x );
+                    Node top = topNodes.get( x );
 
-                        top.setNeighbor( 2, n );
+                    top.setNeighbor( 2, n );
 
-                        n.setNeighbor(  0, top );
+                    n.setNeighbor(  0, top );
 
-                    }
+                }
+
+                // if the bottom is empty, set Node as topNode
+                if ( imagePixels[y + 1][x] > 0 ) {
+
+                    topNodes.set( x, n );
+
+                // otherwise, delete the current topNode at the position
+                } else {
+
+                    topNodes.set( x, null );
+
+                }
+
+                this.addNode( n );
 
-                    // if the bottom is empty, set Node as topNode
-                    if ( imagePixels[y + 1][x] > 0 ) {
+            }
+
+        }
+    }
+
+    /**
+     * Links one row of the Node map
+     * from the packed pixels. Whether
+     * a Node is placed only depends on
+     * the pixel, its left and right
+     * (prv, nxt), and above and below,
+     * so the Node positions of 64 pixels
+     * are found at once with bitwise
+     * operations. The set bits are then
+     * walked in order and linked the
+     * same way as the scalar kernel.
+     * @param y row
+     */
+    private void packedRow ( int y ) {
+
+        long[] mask = this.nodeRow( y, new long[ this.wordsPerRow ] );
+
+        int row = y * this.wordsPerRow;
+
+        // represents the node to the left of the current x position
+        Node leftNode = null;
+
+        for ( int i = 0; i < this.wordsPerRow; i++ ) {
+
+            long m = mask[i];
+
+            while ( m != 0 ) {
+
+                int x = ( i << 6 ) + Long.numberOfTrailingZeros( m );
 
-                        topNodes.set( x, n );
+                m &= m - 1;
 
-                    // otherwise, delete the current topNode at the position
-                    } else {
+                // x is never 0 or the last column, so both reads stay in the row
+                boolean prv = x > 1 && this.isOpenAt( row, x - 1 );
+                boolean nxt = this.isOpenAt( row, x + 1 );
 
-                        topNodes.set( x, null );
+                Node n = new Node ( x, y );
+
+                if ( prv ) {
+
+                    // linking to the leftNode
+                    if ( leftNode != null ) {
+
+                        n.setNeighbor( 3, leftNode );
+
+                        leftNode.setNeighbor( 1, n );
+
+                        // OPEN, OPEN, OPEN keeps the corridor going
+                        if ( nxt ) {
+                            leftNode = n;
+                        }
 
                     }
 
-                    this.nodeCount += 1;
+                // WALL, OPEN, OPEN starts a corridor
+                } else if ( nxt ) {
+
+                    leftNode = n;
 
                 }
 
+                // if the top is empty, try to link to the topNode
+                if ( this.isOpenAt( row - this.wordsPerRow, x ) ) {
+
+                    Node top = topNodes.get( x );
+
+                    top.setNeighbor( 2, n );
+
+                    n.setNeighbor( 0, top );
+
+                }
+
+                // if the bottom is empty, set Node as topNode, otherwise delete it
+                topNodes.set( x, this.isOpenAt( row + this.wordsPerRow, x ) ? n : null );
+
+                this.addNode( n );
+
             }
 
         }
 
-        // finds the finish node, saves it, and connects it to the topNode
-        for (int x = 1; x < this.width - 1; x++) {
+    }
 
-            if ( imagePixels[this.height - 1][x] > 0) {
+    /**
+     * Computes which pixels of a row
+     * (not the first or last row) get
+     * a Node, 64 pixels per long.
+     * OPEN, OPEN, OPEN needs the top or
+     * bottom open, WALL, OPEN, WALL needs
+     * the top or bottom to be a wall, and
+     * OPEN, OPEN, WALL or WALL, OPEN, OPEN
+     * always get a Node.
+     * @param y row
+     * @param mask array of wordsPerRow longs to fill
+     * @return mask with a bit set per Node
+     */
+    public long[] nodeRow ( int y, long[] mask ) {
 
-                this.finish = new Node( x, this.height - 1 );
+        int row = y * this.wordsPerRow;
 
-                Node top = topNodes.get( x );
+        for ( int i = 0; i < this.wordsPerRow; i++ ) {
 
-                top.setNeighbor(  2,  this.finish );
+            long cur = this.packedPixels[ row + i ];
 
-                this.finish.setNeighbor( 0, top );
+            if ( cur == 0 ) {
+                mask[i] = 0;
+                continue;
+            }
 
-                this.nodeCount += 1;
+            // the scalar kernel treats the pixel left of x = 1 as a wall
+            long prv = ( i == 0 ? cur & ~1L : cur ) << 1;
+            long nxt = cur >>> 1;
 
-                break;
+            if ( i > 0 ) {
+                prv |= this.packedPixels[ row + i - 1 ] >>> 63;
+            }
 
+            if ( i + 1 < this.wordsPerRow ) {
+                nxt |= this.packedPixels[ row + i + 1 ] << 63;
             }
 
+            long above = this.packedPixels[ row - this.wordsPerRow + i ];
+            long below = this.packedPixels[ row + this.wordsPerRow + i ];
+
+            long node = cur & ( ( prv ^ nxt )
+                    | ( prv & nxt & ( above | below ) )
+                    | ( ~prv & ~nxt & ~( above & below ) ) );
+
+            // only columns 1 to width - 2 can hold a Node
+            if ( i == 0 ) {
+                node &= ~1L;
+            }
+
+            int last = this.width - 2 - ( i << 6 );
+
+            if ( last < 63 ) {
+                node &= last < 0 ? 0 : -1L >>> ( 63 - last );
+            }
+
+            mask[i] = node;
+
         }
+
+        return mask;
+
+    }
+
+    /**
+     * Returns true if the pixel at
+     * x in the packed row starting
+     * at the given word is white
+     * @param row index of the row's first word
+     * @param x x position
+     * @return boolean
+     */
+    private boolean isOpenAt ( int row, int x ) {
+        return ( this.packedPixels[ row + ( x >>> 6 ) ] & ( 1L << x ) ) != 0;
+    }
+
+    /**
+     * Chooses the kernel used
+     * to build the Node map.
+     * @param kernel "packed" (default)
+     *               or "scalar"
+     */
+    public static void setKernel ( String kernel ) {
+
+        if ( kernel.equals( "packed" ) ) {
+            packedKernel = true;
+        } else if ( kernel.equals( "scalar" ) ) {
+            packedKernel = false;
+        } else {
+            throw new IllegalArgumentException( "Unknown kernel: " + kernel );
+        }
+
     }
 
     /**
@@ -479,6 +769,113 @@ public class Maze {
         return this.finish;
     }
 
+    /**
+     * Returns the name of
+     * the Maze image file
+     * @return file name
+     */
+    public String getImageName () {
+        return this.imageName;
+    }
+
+    /**
+     * Returns the width
+     * of the Maze image
+     * @return width
+     */
+    public int getWidth () {
+        return this.width;
+    }
+
+    /**
+     * Returns the height
+     * of the Maze image
+     * @return height
+     */
+    public int getHeight () {
+        return this.height;
+    }
+
+    /**
+     * Returns the x position of the
+     * start opening (the first white
+     * pixel of the top row), or -1
+     * @return start x position
+     */
+    public int getStartX () {
+        return this.findOpen( 0, this.width );
+    }
+
+    /**
+     * Returns the x position of the
+     * finish opening (the first white
+     * pixel of the bottom row), or -1
+     * @return finish x position
+     */
+    public int getFinishX () {
+        return this.findOpen( this.height - 1, this.width - 1 );
+    }
+
+    /**
+     * Returns the first white pixel
+     * of a row from x = 1, or -1
+     * @param y row
+     * @param end x position to stop at
+     * @return x position
+     */
+    private int findOpen ( int y, int end ) {
+
+        for ( int x = 1; x < end; x++ ) {
+            if ( this.isOpenAt( y * this.wordsPerRow, x ) ) {
+                return x;
+            }
+        }
+
+        return -1;
+
+    }
+
+    /**
+     * Returns true if the pixel
+     * at x and y is white
+     * @param x x position
+     * @param y y position
+     * @return boolean
+     */
+    public boolean isOpen ( int x, int y ) {
+        return this.isOpenAt( y * this.wordsPerRow, x );
+    }
+
+    /**
+     * Returns the image packed 64
+     * pixels to a long, row by row,
+     * with the bit for x at (x % 64)
+     * of word (x / 64). Shared, so
+     * it must not be changed.
+     * @return packed pixels
+     */
+    public long[] getPackedPixels () {
+        return this.packedPixels;
+    }
+
+    /**
+     * Returns the number of
+     * longs in a packed row
+     * @return words per row
+     */
+    public int getWordsPerRow () {
+        return this.wordsPerRow;
+    }
+
+    /**
+     * Returns every Node of the
+     * Node map, indexed by id
+     * @return Nodes
+     */
+    public ArrayList<Node> getNodes () {
+        return this.nodes;
+    }
+
     /**
      * Returns the total of
      * the Nodes in the Maze